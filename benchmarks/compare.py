@@ -0,0 +1,53 @@
+#!/usr/bin/env python3
+"""Compare two JMH JSON result files (e.g. benchmarks/results/<sha>.json).
+
+Usage: compare.py BASE.json CANDIDATE.json [--threshold PCT]
+
+Prints the change of every benchmark present in both files and exits with 1 when
+any score got worse by more than the threshold (default 10%) beyond the error margins.
+All benchmarks report average time per operation, so higher is worse.
+"""
+import argparse
+import json
+import sys
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for run in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted((run.get("params") or {}).items()))
+            key = run["benchmark"].rsplit(".", 2)[-2:]
+            name = ".".join(key) + (f" [{params}]" if params else "")
+            metric = run["primaryMetric"]
+            results[name] = (metric["score"], metric.get("scoreError") or 0.0, metric["scoreUnit"])
+        return results
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("base")
+    parser.add_argument("candidate")
+    parser.add_argument("--threshold", type=float, default=10.0)
+    args = parser.parse_args()
+
+    base, cand = load(args.base), load(args.candidate)
+    regressions = 0
+    for name in sorted(base.keys() & cand.keys()):
+        b, b_err, unit = base[name]
+        c, c_err, _ = cand[name]
+        change = (c - b) / b * 100 if b else 0.0
+        # Only call it a regression when the intervals do not overlap
+        worse = change > args.threshold and (c - c_err) > (b + b_err)
+        regressions += worse
+        flag = "REGRESSION" if worse else ""
+        print(f"{name:70} {b:12.3f} -> {c:12.3f} {unit:8} {change:+7.1f}% {flag}")
+
+    for name in sorted(base.keys() ^ cand.keys()):
+        print(f"{name:70} only in {'base' if name in base else 'candidate'}")
+
+    sys.exit(1 if regressions else 0)
+
+
+if __name__ == "__main__":
+    main()
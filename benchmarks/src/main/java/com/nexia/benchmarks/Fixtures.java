@@ -0,0 +1,46 @@
+package com.nexia.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nexia.core.domain.User;
+import com.nexia.core.security.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Shared inputs, built the same way the application builds them.
+ */
+final class Fixtures {
+
+    static final String SECRET = "benchmark-secret-benchmark-secret-benchmark";
+    static final String ISSUER = "nexia";
+
+    private Fixtures() {
+    }
+
+    static JwtService jwtService(long cacheSize) {
+        return new JwtService(SECRET, ISSUER, 3600, cacheSize, new SimpleMeterRegistry());
+    }
+
+    static User user() {
+        return new User(
+                UUID.fromString("3f1c2a4e-8d5b-4f6a-9c7e-1b2d3e4f5a6b"),
+                "bench.user@nexia.dev",
+                "Bench User",
+                Instant.parse("2025-01-01T00:00:00Z"),
+                "$2a$10$abcdefghijklmnopqrstuuM2Rj3q4qmVn2Q0o0bD9b8c7d6e5f4g",
+                "USER");
+    }
+
+    /**
+     * Equivalent to Boot's auto-configured ObjectMapper (ISO-8601 instants, java.time module).
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
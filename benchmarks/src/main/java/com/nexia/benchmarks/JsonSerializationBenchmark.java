@@ -0,0 +1,80 @@
+package com.nexia.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.nexia.core.api.dto.CursorPage;
+import com.nexia.core.api.dto.UserResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response bodies of the user endpoints: a single {@link UserResponse}, the offset
+ * {@link Page} returned by GET /api/v1/users and the {@link CursorPage} of the keyset listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectWriter writer;
+    private UserResponse single;
+    private Page<UserResponse> page;
+    private CursorPage<UserResponse> cursorPage;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Fixtures.objectMapper();
+        writer = mapper.writer();
+
+        List<UserResponse> items = new ArrayList<>(pageSize);
+        Instant base = Instant.parse("2025-01-01T00:00:00Z");
+        for (int i = 0; i < pageSize; i++) {
+            items.add(new UserResponse(UUID.randomUUID(), "user" + i + "@nexia.dev",
+                    "User Number " + i, base.plusSeconds(i)));
+        }
+        single = items.get(0);
+        page = new PageImpl<>(items, PageRequest.of(3, pageSize, Sort.by("createdAt")), 10_000);
+        cursorPage = new CursorPage<>(items, "MjAyNS0wMS0wMVQwMDowMDowMFp8M2YxYzJhNGU");
+    }
+
+    @Benchmark
+    public byte[] userResponse() throws JsonProcessingException {
+        return writer.writeValueAsBytes(single);
+    }
+
+    @Benchmark
+    public byte[] offsetPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] cursorPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(cursorPage);
+    }
+}
@@ -0,0 +1,65 @@
+package com.nexia.benchmarks;
+
+import com.nexia.core.domain.User;
+import com.nexia.core.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue (login/register) and verification (every authenticated request).
+ * {@code parseCached} is what a repeat request pays; {@code verifySignature} is the
+ * first-sight cost the cache avoids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private JwtParser parser;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = Fixtures.jwtService(10_000);
+        parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Fixtures.SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        user = Fixtures.user();
+        token = jwtService.generate(user);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generate(user);
+    }
+
+    @Benchmark
+    public Claims parseCached() {
+        return jwtService.parse(token);
+    }
+
+    @Benchmark
+    public Claims verifySignature() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,58 @@
+package com.nexia.benchmarks;
+
+import com.nexia.core.messaging.events.UserRegisteredEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserRegisteredEvent} through the converter configured in RabbitConfig:
+ * serialization on the publishing side (outbox) and deserialization in the listener.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class MessageConverterBenchmark {
+
+    private Jackson2JsonMessageConverter converter;
+    private UserRegisteredEvent event;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        converter = new Jackson2JsonMessageConverter();
+        event = UserRegisteredEvent.of(UUID.randomUUID(), "bench.user@nexia.dev");
+        message = converter.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message toMessage() {
+        return converter.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object fromMessage() {
+        return converter.fromMessage(message);
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        return converter.fromMessage(converter.toMessage(event, new MessageProperties()));
+    }
+}
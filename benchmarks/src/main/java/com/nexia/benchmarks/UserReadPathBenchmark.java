@@ -0,0 +1,123 @@
+package com.nexia.benchmarks;
+
+import com.nexia.core.api.dto.UserResponse;
+import com.nexia.core.domain.User;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of GET /api/v1/users through Hibernate, on in-memory H2 so the ORM side dominates:
+ * managed {@link User} entities mapped by hand (read-write and read-only sessions) versus the
+ * constructor-expression projection {@code UserRepository.findAllResponses} uses.
+ * Run with {@code -prof gc} to see the allocation difference per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class UserReadPathBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int PAGE = 3;
+
+    private static final String ENTITIES = "SELECT u FROM User u ORDER BY u.createdAt, u.id";
+    private static final String PROJECTION = """
+            SELECT new com.nexia.core.api.dto.UserResponse(u.id, u.email, u.fullName, u.createdAt)
+            FROM User u ORDER BY u.createdAt, u.id
+            """;
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:users;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "100")
+                .buildSessionFactory();
+
+        Instant base = Instant.parse("2025-01-01T00:00:00Z");
+        sessionFactory.inTransaction(session -> {
+            // Same index as V5, so the page is an index walk and not a sort of the whole table
+            session.createNativeMutationQuery("CREATE INDEX idx_users_created_at_id ON users (created_at, id)")
+                    .executeUpdate();
+            for (int i = 0; i < USERS; i++) {
+                session.persist(new User(UUID.randomUUID(), "user" + i + "@nexia.dev", "User Number " + i,
+                        base.plusSeconds(i), "$2a$10$abcdefghijklmnopqrstuuM2Rj3q4qmVn2Q0o0bD9b8c7d6e5f4g", "USER"));
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    /**
+     * Managed entities in a read-write transaction: snapshots kept and dirty-checked at commit.
+     */
+    @Benchmark
+    public List<UserResponse> entitiesReadWrite() {
+        return sessionFactory.fromTransaction(session -> page(session));
+    }
+
+    /**
+     * Managed entities in a read-only transaction, as the previous {@code findAll(Pageable)} ran.
+     */
+    @Benchmark
+    public List<UserResponse> entitiesReadOnly() {
+        return sessionFactory.fromTransaction(session -> {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            return page(session);
+        });
+    }
+
+    @Benchmark
+    public List<UserResponse> projection() {
+        return sessionFactory.fromTransaction(session -> {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            return session.createQuery(PROJECTION, UserResponse.class)
+                    .setFirstResult(PAGE * pageSize)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+        });
+    }
+
+    private List<UserResponse> page(Session session) {
+        return session.createQuery(ENTITIES, User.class)
+                .setFirstResult(PAGE * pageSize)
+                .setMaxResults(pageSize)
+                .getResultList()
+                .stream()
+                .map(UserResponse::of)
+                .toList();
+    }
+}
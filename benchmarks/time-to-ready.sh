@@ -0,0 +1,80 @@
+#!/usr/bin/env bash
+# Time from container start until the service reports ready, per startup variant.
+#
+# Uses the images from `make startup-images` (tags jar, cds, aot and, with NATIVE=1, native)
+# and the docker-compose stack; variants whose image is missing are skipped.
+#
+#   benchmarks/time-to-ready.sh              # all variants, RUNS=5 starts each
+#   benchmarks/time-to-ready.sh cds aot      # selected variants
+#
+# Prints a markdown table and keeps a copy in benchmarks/results/time-to-ready-<git sha>.md.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-180}
+if [ $# -gt 0 ]; then VARIANTS=("$@"); else VARIANTS=(jar cds aot native); fi
+
+mkdir -p benchmarks/results
+OUT=benchmarks/results/time-to-ready-$(git rev-parse --short HEAD).md
+
+# service | compose variable selecting the image tag | readiness URL
+SERVICES=(
+  "nexia-core|NEXIA_CORE_TAG|http://localhost:8081/actuator/health/readiness"
+  "nexia-gateway|NEXIA_GATEWAY_TAG|http://localhost:8080/actuator/health"
+)
+
+now_ms() { date +%s%3N; }
+
+# Milliseconds from container start to the first 2xx on the readiness URL
+start_once() {
+  local service=$1 tag_var=$2 url=$3 tag=$4
+  env "$tag_var=$tag" docker compose up -d --no-build --no-deps --force-recreate "$service" >/dev/null 2>&1
+  local started deadline
+  started=$(date -d "$(docker inspect -f '{{.State.StartedAt}}' "$service")" +%s%3N)
+  deadline=$(( started + TIMEOUT_SECONDS * 1000 ))
+  until curl -sf -o /dev/null "$url"; do
+    if [ "$(now_ms)" -gt "$deadline" ]; then
+      echo "$service:$tag not ready after ${TIMEOUT_SECONDS}s" >&2
+      return 1
+    fi
+    sleep 0.05
+  done
+  echo $(( $(now_ms) - started ))
+}
+
+# "Started <App> in N seconds": Spring's own figure, excludes container and JVM launch
+spring_started() {
+  docker logs "$1" 2>&1 | sed -n 's/.*Started .* in \([0-9.]*\) seconds.*/\1/p' | tail -1
+}
+
+median() { sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'; }
+
+echo "Starting db, rabbitmq and redis ..." >&2
+docker compose up -d --wait db rabbitmq redis >/dev/null
+
+{
+  echo "| service | variant | image MB | ready median ms | min | max | Spring 'Started in' s, last run |"
+  echo "|---|---|---:|---:|---:|---:|---:|"
+} | tee "$OUT"
+
+for entry in "${SERVICES[@]}"; do
+  IFS='|' read -r service tag_var url <<<"$entry"
+  for tag in "${VARIANTS[@]}"; do
+    if ! docker image inspect "$service:$tag" >/dev/null 2>&1; then
+      echo "skipping $service:$tag (no image, see make startup-images)" >&2
+      continue
+    fi
+    samples=()
+    for _ in $(seq "$RUNS"); do
+      samples+=("$(start_once "$service" "$tag_var" "$url" "$tag")")
+    done
+    sorted=$(printf '%s\n' "${samples[@]}" | sort -n)
+    size_mb=$(( $(docker image inspect -f '{{.Size}}' "$service:$tag") / 1000000 ))
+    echo "| $service | $tag | $size_mb | $(median <<<"$sorted") | $(head -1 <<<"$sorted") | $(tail -1 <<<"$sorted") | $(spring_started "$service") |" \
+      | tee -a "$OUT"
+  done
+done
+
+echo "Saved to $OUT. Restore the default images with: docker compose up -d nexia-core nexia-gateway" >&2
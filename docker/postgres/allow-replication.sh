@@ -0,0 +1,5 @@
+#!/bin/bash
+# Lets the db-replica service (docker compose --profile replica) stream WAL from this primary.
+# Runs once, when the data volume is initialised; on an existing volume run `docker compose down -v` first.
+set -e
+echo "host replication ${POSTGRES_USER} all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,172 @@
+package com.nexia.loadtests;
+
+import io.gatling.javaapi.core.Assertion;
+import io.gatling.javaapi.core.PopulationBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.constantUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.details;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.jsonPath;
+import static io.gatling.javaapi.core.CoreDsl.rampUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * End-to-end load against the gateway (docker-compose stack): register, login,
+ * login-and-me through the BFF, offset-paginated list and lookup by id.
+ * <p>
+ * Open workload model: every scenario gets its own constant arrival rate after a ramp, so slow
+ * responses show up as latency instead of silently lowering the offered load.
+ * All knobs are system properties (see load-tests/README.md); failed assertions fail the run.
+ */
+public class NexiaSimulation extends Simulation {
+
+    private static final String BASE_URL = System.getProperty("nexia.baseUrl", "http://localhost:8080");
+
+    private static final Set<String> SCENARIOS = Arrays.stream(
+                    System.getProperty("nexia.scenarios", "register,login,loginAndMe,list,byId").split(","))
+            .map(String::trim)
+            .filter(s -> !s.isEmpty())
+            .collect(Collectors.toSet());
+
+    private static final double RPS = Double.parseDouble(System.getProperty("nexia.rps", "20"));
+    private static final Duration RAMP = Duration.ofSeconds(Long.getLong("nexia.rampSeconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("nexia.durationSeconds", 60));
+
+    // Pass/fail thresholds; BCrypt-bound auth calls get their own latency budget
+    private static final int READ_P99_MILLIS = Integer.getInteger("nexia.readP99Millis", 250);
+    private static final int READ_P999_MILLIS = Integer.getInteger("nexia.readP999Millis", 1000);
+    private static final int AUTH_P99_MILLIS = Integer.getInteger("nexia.authP99Millis", 1000);
+    private static final int AUTH_P999_MILLIS = Integer.getInteger("nexia.authP999Millis", 3000);
+    private static final double MAX_ERROR_PERCENT = Double.parseDouble(System.getProperty("nexia.maxErrorPercent", "1"));
+
+    private static final String PASSWORD = "LoadTest-Password-1";
+    private static final String RUN_ID = UUID.randomUUID().toString().substring(0, 8);
+
+    private final SeedData seed = new SeedData(BASE_URL,
+            Integer.getInteger("nexia.seedUsers", 50),
+            PASSWORD,
+            System.getProperty("nexia.adminEmail", "loadtest-admin@nexia.dev"),
+            System.getProperty("nexia.adminPassword", "LoadTest-Admin-1"));
+
+    private final HttpProtocolBuilder httpProtocol = http
+            .baseUrl(BASE_URL)
+            .acceptHeader("application/json")
+            .contentTypeHeader("application/json")
+            .userAgentHeader("nexia-load-tests");
+
+    // ---------------------------------------------------------------- feeders
+
+    private static Iterator<Map<String, Object>> newUsers() {
+        return Stream.generate(() -> Map.<String, Object>of(
+                "email", "loadtest-" + RUN_ID + "-" + UUID.randomUUID() + "@nexia.dev")).iterator();
+    }
+
+    private Iterator<Map<String, Object>> seededUsers() {
+        return Stream.generate(() -> {
+            List<SeedData.SeedUser> users = seed.users();
+            SeedData.SeedUser user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+            return Map.<String, Object>of("email", user.email(), "userId", user.id());
+        }).iterator();
+    }
+
+    private static Iterator<Map<String, Object>> pages() {
+        return Stream.generate(() -> Map.<String, Object>of("page", ThreadLocalRandom.current().nextInt(5))).iterator();
+    }
+
+    // -------------------------------------------------------------- scenarios
+
+    private final ScenarioBuilder register = scenario("register")
+            .feed(newUsers())
+            .exec(http("register")
+                    .post("/api/auth/register")
+                    .body(StringBody("{\"email\":\"#{email}\",\"fullName\":\"Load Test\",\"password\":\"" + PASSWORD + "\"}"))
+                    .check(status().is(201), jsonPath("$.accessToken").exists()));
+
+    private final ScenarioBuilder login = scenario("login")
+            .feed(seededUsers())
+            .exec(http("login")
+                    .post("/api/auth/login")
+                    .body(StringBody("{\"email\":\"#{email}\",\"password\":\"" + PASSWORD + "\"}"))
+                    .check(status().is(200), jsonPath("$.accessToken").exists()));
+
+    private final ScenarioBuilder loginAndMe = scenario("loginAndMe")
+            .feed(seededUsers())
+            .exec(http("login-and-me")
+                    .post("/bff/auth/login-and-me")
+                    .body(StringBody("{\"email\":\"#{email}\",\"password\":\"" + PASSWORD + "\"}"))
+                    .check(status().is(200), jsonPath("$.me.id").exists()));
+
+    private final ScenarioBuilder list = scenario("list")
+            .feed(pages())
+            .exec(http("list")
+                    .get("/api/v1/users?page=#{page}&size=20")
+                    .header("Authorization", session -> "Bearer " + seed.adminToken())
+                    .check(status().is(200)));
+
+    private final ScenarioBuilder byId = scenario("byId")
+            .feed(seededUsers())
+            .exec(http("by-id")
+                    .get("/api/v1/users/#{userId}")
+                    .header("Authorization", session -> "Bearer " + seed.adminToken())
+                    .check(status().is(200)));
+
+    {
+        List<PopulationBuilder> populations = new ArrayList<>();
+        List<Assertion> assertions = new ArrayList<>();
+
+        assertions.add(global().failedRequests().percent().lt(MAX_ERROR_PERCENT));
+
+        addIfSelected("register", register, "register", true, populations, assertions);
+        addIfSelected("login", login, "login", true, populations, assertions);
+        addIfSelected("loginAndMe", loginAndMe, "login-and-me", true, populations, assertions);
+        addIfSelected("list", list, "list", false, populations, assertions);
+        addIfSelected("byId", byId, "by-id", false, populations, assertions);
+
+        if (populations.isEmpty()) {
+            throw new IllegalArgumentException("nexia.scenarios selects no known scenario: " + SCENARIOS);
+        }
+
+        setUp(populations)
+                .protocols(httpProtocol)
+                .assertions(assertions);
+    }
+
+    private static void addIfSelected(String name, ScenarioBuilder scenario, String request, boolean auth,
+                                      List<PopulationBuilder> populations, List<Assertion> assertions) {
+        if (!SCENARIOS.contains(name)) {
+            return;
+        }
+        populations.add(scenario.injectOpen(
+                rampUsersPerSec(1).to(RPS).during(RAMP),
+                constantUsersPerSec(RPS).during(DURATION)));
+
+        assertions.add(details(request).responseTime().percentile(99.0).lt(auth ? AUTH_P99_MILLIS : READ_P99_MILLIS));
+        assertions.add(details(request).responseTime().percentile(99.9).lt(auth ? AUTH_P999_MILLIS : READ_P999_MILLIS));
+        assertions.add(details(request).failedRequests().percent().lt(MAX_ERROR_PERCENT));
+    }
+
+    @Override
+    public void before() {
+        boolean needsUsers = SCENARIOS.contains("login") || SCENARIOS.contains("loginAndMe") || SCENARIOS.contains("byId");
+        boolean needsAdmin = SCENARIOS.contains("list") || SCENARIOS.contains("byId");
+        seed.prepare(needsUsers, needsAdmin);
+    }
+}
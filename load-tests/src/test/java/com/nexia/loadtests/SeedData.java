@@ -0,0 +1,112 @@
+package com.nexia.loadtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixture users created before the load starts, outside of the measured requests:
+ * a pool of known accounts for login/by-id, and an admin token for the admin-only reads.
+ * Re-running is safe: existing accounts (409 on register) are simply logged in.
+ */
+final class SeedData {
+
+    record SeedUser(String email, String id) {
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+    private final int userCount;
+    private final String password;
+    private final String adminEmail;
+    private final String adminPassword;
+
+    private volatile List<SeedUser> users = List.of();
+    private volatile String adminToken;
+
+    SeedData(String baseUrl, int userCount, String password, String adminEmail, String adminPassword) {
+        this.baseUrl = baseUrl;
+        this.userCount = userCount;
+        this.password = password;
+        this.adminEmail = adminEmail;
+        this.adminPassword = adminPassword;
+    }
+
+    List<SeedUser> users() {
+        return users;
+    }
+
+    String adminToken() {
+        return adminToken;
+    }
+
+    void prepare(boolean needsUsers, boolean needsAdmin) {
+        try {
+            if (needsUsers) {
+                List<SeedUser> seeded = new ArrayList<>(userCount);
+                for (int i = 0; i < userCount; i++) {
+                    String email = "loadtest-seed-" + i + "@nexia.dev";
+                    post("/api/auth/register", """
+                            {"email":"%s","fullName":"Load Seed %d","password":"%s"}""".formatted(email, i, password));
+                    String token = login(email, password);
+                    JsonNode me = JSON.readTree(get("/api/v1/users/me", token));
+                    seeded.add(new SeedUser(email, me.get("id").asText()));
+                }
+                users = List.copyOf(seeded);
+            }
+            if (needsAdmin) {
+                adminToken = login(adminEmail, adminPassword);
+                // Fail fast when the account exists but was never promoted
+                get("/api/v1/users?size=1", adminToken);
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Seeding against " + baseUrl + " failed: " + ex.getMessage(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Seeding interrupted", ex);
+        }
+    }
+
+    private String login(String email, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/api/auth/login", """
+                {"email":"%s","password":"%s"}""".formatted(email, password));
+        if (response.statusCode() != 200) {
+            throw new IOException("login as " + email + " returned " + response.statusCode()
+                    + " (admin account missing? run `make load-seed-admin`)");
+        }
+        return JSON.readTree(response.body()).get("accessToken").asText();
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String get(String path, String token) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("GET " + path + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -44,35 +44,13 @@ app.post("/bff/auth/login", async (req, res) => {
   }
 });
 
-// Aggregated endpoint: login + fetch current user ("me") via /api/v1/users/me
+// Aggregated endpoint: core's /api/auth/login-and-me returns the token and the profile in one call
 app.post("/bff/auth/login-and-me", async (req, res) => {
   try {
-    // 1) login
-    const loginResp = await axios.post(`${CORE_URL}/api/auth/login`, req.body, {
+    const r = await axios.post(`${CORE_URL}/api/auth/login-and-me`, req.body, {
       headers: { "Content-Type": "application/json" }
     });
-
-    const token = loginResp.data?.accessToken || loginResp.data?.token;
-    if (!token) {
-      return res.status(502).json({
-        message: "bff_error",
-        detail: "Core login response did not include accessToken",
-        loginResponse: loginResp.data
-      });
-    }
-
-    // 2) fetch current user (server derives email from token)
-    const meResp = await axios.get(`${CORE_URL}/api/v1/users/me`, {
-      headers: { Authorization: `Bearer ${token}` }
-    });
-
-    // 3) return combined result
-    res.json({
-      accessToken: token,
-      tokenType: loginResp.data?.tokenType || "Bearer",
-      expiresInSeconds: loginResp.data?.expiresInSeconds,
-      me: meResp.data
-    });
+    res.status(r.status).json(r.data);
   } catch (e) {
     sendAxiosError(res, e);
   }
@@ -0,0 +1,26 @@
+package com.nexia.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A complete upstream response, shared with coalesced followers and kept in the response cache.
+ *
+ * @param status  upstream status code
+ * @param headers the representation headers only (content type, ETag, Cache-Control, ...)
+ * @param body    full body
+ * @param ttlNanos how long it may be served from cache; 0 = share with in-flight followers only
+ */
+record CachedResponse(int status, HttpHeaders headers, byte[] body, long ttlNanos) {
+
+    /** Approximate heap cost, used as the Caffeine weight. */
+    int weight() {
+        int headerBytes = headers.entrySet().stream()
+                .mapToInt(e -> e.getKey().length() + e.getValue().stream().mapToInt(String::length).sum())
+                .sum();
+        return body.length + headerBytes + 64;
+    }
+
+    String etag() {
+        return headers.getETag();
+    }
+}
@@ -0,0 +1,335 @@
+package com.nexia.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nexia.gateway.security.TokenRelayFilter;
+import com.nexia.gateway.security.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Single-flight plus short-lived caching for per-user GETs ({@code /api/v1/users/me},
+ * {@code /api/v1/users/{id}} by default).
+ * <p>
+ * Requests are keyed by path, query and the verified principal (user id and role), so a
+ * response is only ever replayed to the caller it was produced for. While one request for a
+ * key is in flight, identical ones wait for its 200 instead of going to nexia-core; anything
+ * else (errors, 404, oversized bodies) makes them go upstream on their own.
+ * <p>
+ * Completed 200s are kept for core's {@code Cache-Control: max-age} (capped by
+ * {@code maxTtl}; {@code no-store}/{@code no-cache} are never kept), bounded by entry count
+ * and bytes. {@code If-None-Match} is answered here from the ETag core sent, so the upstream
+ * request always asks for the full body.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    /*
+     * Must wrap NettyWriteResponseFilter to see the response body. That also puts it ahead of the
+     * route filters: hits and coalesced followers spend no rate-limit tokens, circuit-breaker
+     * time or retries, since they never reach core.
+     */
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    public static final String CACHE_HEADER = "X-Nexia-Cache";
+
+    // What is replayed from a shared response; hop-by-hop and per-request headers are not
+    private static final List<String> STORED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.CONTENT_ENCODING,
+            HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL, HttpHeaders.EXPIRES,
+            HttpHeaders.VARY);
+
+    private static final Pattern MAX_AGE = Pattern.compile("(?:^|[,\\s])max-age\\s*=\\s*(\\d+)");
+
+    private final ResponseCacheProperties properties;
+    private final List<PathPattern> patterns;
+    private final Cache<String, CachedResponse> cache;
+    private final Map<String, Mono<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.patterns = properties.paths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+
+        // Byte bound; every entry weighs at least maxMemory/maxEntries, which caps the entry count too
+        long maxBytes = properties.maxMemory().toBytes();
+        long maxEntries = properties.maxEntries();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse r) -> (int) Math.max(r.weight(), maxBytes / maxEntries))
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse r, long now) {
+                        return r.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse r, long now, long current) {
+                        return r.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse r, long now, long current) {
+                        return current;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayResponses");
+        Gauge.builder("nexia.gateway.cache.inflight", inFlight, Map::size)
+                .description("Distinct upstream requests currently shared by coalesced callers")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.enabled() || request.getMethod() != HttpMethod.GET || !matches(request)) {
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(exchange);
+        if (key == null) {
+            count("bypass");
+            return chain.filter(exchange);
+        }
+
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            count("hit");
+            return replay(exchange, cached, "HIT");
+        }
+
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Mono<CachedResponse> shared = sink.asMono();
+        Mono<CachedResponse> leader = inFlight.putIfAbsent(key, shared);
+
+        if (leader != null) {
+            count("coalesced");
+            return leader
+                    .timeout(properties.coalesceTimeout())
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .onErrorReturn(Optional.empty())
+                    .flatMap(r -> r.isPresent()
+                            ? replay(exchange, r.get(), "COALESCED")
+                            : chain.filter(exchange));
+        }
+
+        count("miss");
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+
+        // Upstream always returns the full body so it can be shared; conditionals are answered here
+        ServerHttpRequest upstream = request.mutate()
+                .headers(headers -> headers.remove(HttpHeaders.IF_NONE_MATCH))
+                .build();
+        CapturingResponse response = new CapturingResponse(exchange.getResponse(), ifNoneMatch, captured -> {
+            if (captured.ttlNanos() > 0) {
+                cache.put(key, captured);
+            }
+            sink.tryEmitValue(captured);
+        });
+
+        return chain.filter(exchange.mutate().request(upstream).response(response).build())
+                .doFinally(signal -> {
+                    inFlight.remove(key, shared);
+                    // No shareable 200 (error, 404, cancel, ...): followers go upstream themselves
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    private boolean matches(ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Verified principal when the edge checked the token; otherwise a digest of the raw
+     * Authorization header (auth disabled at the gateway). Anonymous requests are not cached.
+     */
+    private static String cacheKey(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        String target = request.getPath().value()
+                + (request.getURI().getRawQuery() == null ? "" : "?" + request.getURI().getRawQuery());
+
+        VerifiedToken token = exchange.getAttribute(TokenRelayFilter.VERIFIED_TOKEN_ATTR);
+        if (token != null) {
+            return "u:" + token.userId() + ":" + token.role() + " " + target;
+        }
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || authorization.isBlank()) {
+            return null;
+        }
+        return "a:" + sha256(authorization) + " " + target;
+    }
+
+    private long ttlNanos(HttpHeaders headers) {
+        if (!properties.cacheEnabled()) {
+            return 0;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null || cacheControl.contains("no-store") || cacheControl.contains("no-cache")) {
+            return 0;
+        }
+        Matcher m = MAX_AGE.matcher(cacheControl);
+        if (!m.find()) {
+            return 0;
+        }
+        Duration maxAge = Duration.ofSeconds(Long.parseLong(m.group(1)));
+        return (maxAge.compareTo(properties.maxTtl()) > 0 ? properties.maxTtl() : maxAge).toNanos();
+    }
+
+    private Mono<Void> replay(ServerWebExchange exchange, CachedResponse cached, String result) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().set(CACHE_HEADER, result);
+
+        if (notModified(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.etag())) {
+            return notModifiedResponse(response);
+        }
+        response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static Mono<Void> notModifiedResponse(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        return response.setComplete();
+    }
+
+    private static boolean notModified(List<String> ifNoneMatch, String etag) {
+        if (etag == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        String strong = stripWeak(etag);
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || stripWeak(candidate).equals(strong)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private void count(String result) {
+        counters.computeIfAbsent(result, r -> Counter.builder("nexia.gateway.cache.requests")
+                .description("Cacheable GETs by outcome (hit, miss, coalesced, bypass)")
+                .tag("result", r)
+                .register(meterRegistry)).increment();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Buffers a 200 body once, hands the complete response to the cache and waiting followers,
+     * then writes it (or a 304) to the leader's own client. Anything else streams through untouched.
+     */
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final List<String> ifNoneMatch;
+        private final Consumer<CachedResponse> onCaptured;
+
+        CapturingResponse(ServerHttpResponse delegate, List<String> ifNoneMatch,
+                          Consumer<CachedResponse> onCaptured) {
+            super(delegate);
+            this.ifNoneMatch = ifNoneMatch;
+            this.onCaptured = onCaptured;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (status == null || status.value() != HttpStatus.OK.value()) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                HttpHeaders upstream = getDelegate().getHeaders();
+                if (bytes.length <= properties.maxBodySize().toBytes()) {
+                    HttpHeaders stored = new HttpHeaders();
+                    for (String name : STORED_HEADERS) {
+                        List<String> values = upstream.get(name);
+                        if (values != null) {
+                            stored.put(name, List.copyOf(values));
+                        }
+                    }
+                    onCaptured.accept(new CachedResponse(status.value(), stored, bytes, ttlNanos(upstream)));
+                }
+
+                upstream.set(CACHE_HEADER, "MISS");
+                if (notModified(ifNoneMatch, upstream.getETag())) {
+                    return notModifiedResponse(getDelegate());
+                }
+                upstream.setContentLength(bytes.length);
+                return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+    }
+}
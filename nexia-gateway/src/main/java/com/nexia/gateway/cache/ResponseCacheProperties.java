@@ -0,0 +1,46 @@
+package com.nexia.gateway.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Request coalescing and short-lived response caching for idempotent per-user GETs.
+ * Entries live as long as nexia-core's {@code Cache-Control: max-age} allows, capped by {@code maxTtl}.
+ *
+ * @param enabled         master switch (coalescing and caching)
+ * @param cacheEnabled    keep responses after they complete; false = only merge in-flight duplicates
+ * @param paths           path patterns the filter applies to (GET only; HEAD and other methods pass through)
+ * @param maxEntries      cached responses per replica
+ * @param maxMemory       total body + header bytes held per replica
+ * @param maxBodySize     larger responses are forwarded but never cached or shared
+ * @param maxTtl          upper bound for core's max-age
+ * @param coalesceTimeout how long followers wait for the leader before going upstream themselves
+ */
+@ConfigurationProperties("nexia.gateway.cache")
+public record ResponseCacheProperties(
+        Boolean enabled,
+        Boolean cacheEnabled,
+        List<String> paths,
+        long maxEntries,
+        DataSize maxMemory,
+        DataSize maxBodySize,
+        Duration maxTtl,
+        Duration coalesceTimeout
+) {
+
+    public ResponseCacheProperties {
+        enabled = enabled == null || enabled;
+        cacheEnabled = cacheEnabled == null || cacheEnabled;
+        paths = paths == null || paths.isEmpty()
+                ? List.of("/api/v1/users/me", "/api/v1/users/{id:[0-9a-fA-F-]{36}}")
+                : List.copyOf(paths);
+        maxEntries = maxEntries <= 0 ? 10_000 : maxEntries;
+        maxMemory = maxMemory == null ? DataSize.ofMegabytes(16) : maxMemory;
+        maxBodySize = maxBodySize == null ? DataSize.ofKilobytes(64) : maxBodySize;
+        maxTtl = maxTtl == null ? Duration.ofSeconds(30) : maxTtl;
+        coalesceTimeout = coalesceTimeout == null ? Duration.ofSeconds(5) : coalesceTimeout;
+    }
+}
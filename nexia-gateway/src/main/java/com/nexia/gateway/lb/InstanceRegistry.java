@@ -0,0 +1,203 @@
+package com.nexia.gateway.lb;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instances and their live statistics per service, from {@code nexia.gateway.lb.services}.
+ * <p>
+ * A service's list is either static or read from {@code instancesFile}, which is polled so replicas
+ * can be added or drained without restarting the gateway. Instances added later go through slow start.
+ */
+public class InstanceRegistry implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(InstanceRegistry.class);
+
+    private final LoadBalancingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ServiceState> services = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher;
+
+    public InstanceRegistry(LoadBalancingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        ScheduledExecutorService scheduler = null;
+        for (Map.Entry<String, LoadBalancingProperties.Service> entry : properties.services().entrySet()) {
+            ServiceState state = new ServiceState(entry.getKey(), entry.getValue());
+            services.put(entry.getKey(), state);
+            state.load(false);
+
+            if (entry.getValue().instancesFile() != null) {
+                if (scheduler == null) {
+                    scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                        Thread thread = new Thread(r, "nexia-lb-refresh");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+                long millis = entry.getValue().refreshInterval().toMillis();
+                scheduler.scheduleWithFixedDelay(() -> state.load(true), millis, millis, TimeUnit.MILLISECONDS);
+            }
+        }
+        this.refresher = scheduler;
+    }
+
+    public List<ServiceInstance> instances(String serviceId) {
+        ServiceState state = services.get(serviceId);
+        return state == null ? List.of() : state.instances;
+    }
+
+    InstanceStats stats(String serviceId, String instanceId) {
+        ServiceState state = services.get(serviceId);
+        return state == null ? null : state.stats.get(instanceId);
+    }
+
+    LoadBalancingProperties properties() {
+        return properties;
+    }
+
+    /**
+     * Ejecting one more instance of the service must stay within {@code maxEjectionPercent}
+     * (at least one instance may always be ejected when there are several).
+     */
+    boolean mayEject(String serviceId, long now) {
+        ServiceState state = services.get(serviceId);
+        if (state == null || state.instances.size() < 2) {
+            return false;
+        }
+        int total = state.instances.size();
+        long ejected = state.stats.values().stream().filter(s -> s.isEjected(now)).count();
+        int allowed = Math.max(1, total * properties.ejection().maxEjectionPercent() / 100);
+        return ejected < Math.min(allowed, total - 1);
+    }
+
+    void recordEjection(String serviceId, String instanceId) {
+        log.warn("Ejected {} instance {} after {} consecutive failures", serviceId, instanceId,
+                properties.ejection().consecutiveFailures());
+        Counter.builder("nexia.gateway.lb.ejections")
+                .tags("service", serviceId, "instance", instanceId)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public void destroy() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    private final class ServiceState {
+
+        private final String serviceId;
+        private final LoadBalancingProperties.Service config;
+        private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+        private final Map<String, List<Meter>> meters = new ConcurrentHashMap<>();
+        private volatile List<ServiceInstance> instances = List.of();
+        private long fileModified = Long.MIN_VALUE;
+
+        ServiceState(String serviceId, LoadBalancingProperties.Service config) {
+            this.serviceId = serviceId;
+            this.config = config;
+        }
+
+        // Called from the constructor, then only from the single refresh thread
+        void load(boolean warmUp) {
+            try {
+                List<String> urls = config.instances();
+                if (config.instancesFile() != null) {
+                    Path file = Path.of(config.instancesFile());
+                    if (Files.exists(file)) {
+                        long modified = Files.getLastModifiedTime(file).toMillis();
+                        if (modified == fileModified) {
+                            return;
+                        }
+                        fileModified = modified;
+                        urls = Files.readAllLines(file).stream()
+                                .map(line -> line.replaceFirst("#.*", "").trim())
+                                .filter(line -> !line.isEmpty())
+                                .toList();
+                    } else if (fileModified == Long.MIN_VALUE && !instances.isEmpty()) {
+                        return;
+                    }
+                }
+                apply(urls, warmUp);
+            } catch (IOException | RuntimeException e) {
+                // Keep routing to the last good list
+                log.warn("Could not refresh instances of {}: {}", serviceId, e.getMessage());
+            }
+        }
+
+        private void apply(List<String> urls, boolean warmUp) {
+            Map<String, ServiceInstance> next = new LinkedHashMap<>();
+            for (String url : urls) {
+                URI uri = URI.create(url);
+                if (uri.getHost() == null) {
+                    throw new IllegalArgumentException("Instance URL without host: " + url);
+                }
+                boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+                int port = uri.getPort() > 0 ? uri.getPort() : secure ? 443 : 80;
+                String instanceId = uri.getHost() + ":" + port;
+                next.putIfAbsent(instanceId, new DefaultServiceInstance(instanceId, serviceId, uri.getHost(), port, secure));
+            }
+
+            long now = System.nanoTime();
+            for (String instanceId : next.keySet()) {
+                stats.computeIfAbsent(instanceId, id -> {
+                    InstanceStats created = new InstanceStats(properties, now, warmUp);
+                    meters.put(id, registerMeters(id, created));
+                    return created;
+                });
+            }
+            for (String instanceId : new ArrayList<>(stats.keySet())) {
+                if (!next.containsKey(instanceId)) {
+                    // In-flight requests keep their own reference to the stats
+                    stats.remove(instanceId);
+                    meters.getOrDefault(instanceId, List.of()).forEach(meterRegistry::remove);
+                    meters.remove(instanceId);
+                }
+            }
+
+            List<ServiceInstance> updated = List.copyOf(next.values());
+            if (!updated.equals(instances)) {
+                log.info("{} instances: {}", serviceId, next.keySet());
+            }
+            instances = updated;
+        }
+
+        private List<Meter> registerMeters(String instanceId, InstanceStats instance) {
+            Tags tags = Tags.of("service", serviceId, "instance", instanceId);
+            return List.of(
+                    Gauge.builder("nexia.gateway.lb.outstanding", instance, InstanceStats::outstanding)
+                            .tags(tags).register(meterRegistry),
+                    Gauge.builder("nexia.gateway.lb.latency.ewma", instance, InstanceStats::ewmaMillis)
+                            .tags(tags).baseUnit("milliseconds").register(meterRegistry),
+                    Gauge.builder("nexia.gateway.lb.ejected", instance, s -> s.isEjected(System.nanoTime()) ? 1 : 0)
+                            .tags(tags).register(meterRegistry),
+                    Gauge.builder("nexia.gateway.lb.weight", instance, s -> s.weight(System.nanoTime()))
+                            .tags(tags).register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.nexia.gateway.lb;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Live statistics for one upstream instance, fed by {@link InstanceStatsFilter} and read by
+ * {@link NexiaLoadBalancer} on every pick.
+ */
+final class InstanceStats {
+
+    private final LoadBalancingProperties properties;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    // Guarded by this; updates are a few arithmetic operations per response
+    private double ewmaNanos;
+    private long ewmaUpdatedAt;
+    private int consecutiveFailures;
+    private int ejections;
+    // Volatile: read without the lock while another instance's stats hold theirs (mayEject)
+    private volatile long ejectedUntil;
+    private long warmingSince;
+
+    InstanceStats(LoadBalancingProperties properties, long now, boolean warmUp) {
+        this.properties = properties;
+        this.ewmaUpdatedAt = now;
+        // nanoTime has an arbitrary origin: "not ejected" must not depend on it being positive
+        this.ejectedUntil = now;
+        // Instances known at startup take full load right away
+        this.warmingSince = warmUp ? now : now - properties.slowStart().toNanos();
+    }
+
+    void begin() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * @param latencyNanos time to response headers, or -1 when the request was cancelled
+     * @param mayEject     asked once the failure threshold is reached (caps ejections per service)
+     * @return whether this response ejected the instance
+     */
+    synchronized boolean end(long now, long latencyNanos, boolean failed, BooleanSupplier mayEject) {
+        outstanding.decrementAndGet();
+        if (latencyNanos < 0) {
+            return false;
+        }
+
+        if (latencyNanos > ewmaNanos) {
+            // Peak-sensitive: jump to a spike immediately, decay from it slowly
+            ewmaNanos = latencyNanos;
+        } else {
+            double w = Math.exp(-(double) (now - ewmaUpdatedAt) / properties.ewmaDecay().toNanos());
+            ewmaNanos = ewmaNanos * w + latencyNanos * (1 - w);
+        }
+        ewmaUpdatedAt = now;
+
+        LoadBalancingProperties.Ejection ejection = properties.ejection();
+        if (!failed) {
+            consecutiveFailures = 0;
+            if (ejections > 0 && now - ejectedUntil > ejection.maxEjectionTime().toNanos()) {
+                ejections = 0;
+            }
+            return false;
+        }
+        if (++consecutiveFailures < ejection.consecutiveFailures() || isEjected(now) || !mayEject.getAsBoolean()) {
+            return false;
+        }
+        ejections++;
+        long nanos = Math.min(ejection.baseEjectionTime().toNanos() * ejections, ejection.maxEjectionTime().toNanos());
+        ejectedUntil = now + nanos;
+        // Back in rotation through slow start, not at full weight
+        warmingSince = ejectedUntil;
+        consecutiveFailures = 0;
+        return true;
+    }
+
+    boolean isEjected(long now) {
+        // Overflow-safe comparison of nanoTime values
+        return ejectedUntil - now > 0;
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+
+    synchronized double ewmaMillis() {
+        return ewmaNanos / 1_000_000d;
+    }
+
+    /**
+     * Slow start: share of full weight, growing linearly from 10% to 100%.
+     */
+    synchronized double weight(long now) {
+        long window = properties.slowStart().toNanos();
+        if (window <= 0 || now - warmingSince >= window) {
+            return 1d;
+        }
+        return Math.max(0.1, (double) Math.max(0, now - warmingSince) / window);
+    }
+
+    /**
+     * Lower is better. Unmeasured instances count as 1 ms so they get probed.
+     */
+    double cost(LoadBalancingProperties.Strategy strategy) {
+        double load = outstanding() + 1;
+        return strategy == LoadBalancingProperties.Strategy.PEAK_EWMA
+                ? Math.max(1d, ewmaMillis()) * load
+                : load;
+    }
+}
@@ -0,0 +1,68 @@
+package com.nexia.gateway.lb;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Set;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ * Feeds {@link InstanceStats} for the instance the load balancer picked: in-flight count,
+ * time to response headers and failures (errors, 502/503/504) for outlier ejection.
+ * Cancelled attempts (a lost hedge, a client gone) only release their in-flight slot.
+ */
+public class InstanceStatsFilter implements GlobalFilter, Ordered {
+
+    // Right after the load balancer has put its choice on the exchange
+    public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+
+    private static final Set<Integer> FAILURE_STATUSES = Set.of(502, 503, 504);
+
+    private final InstanceRegistry registry;
+
+    public InstanceStatsFilter(InstanceRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> response = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (response == null || !response.hasServer()) {
+            return chain.filter(exchange);
+        }
+        ServiceInstance instance = response.getServer();
+        InstanceStats stats = registry.stats(instance.getServiceId(), instance.getInstanceId());
+        if (stats == null) {
+            return chain.filter(exchange);
+        }
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            stats.begin();
+            return chain.filter(exchange).doFinally(signal -> {
+                long now = System.nanoTime();
+                long latency = signal == SignalType.CANCEL ? -1 : now - start;
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                boolean failed = signal == SignalType.ON_ERROR
+                        || (status != null && FAILURE_STATUSES.contains(status.value()));
+                if (stats.end(now, latency, failed, () -> registry.mayEject(instance.getServiceId(), now))) {
+                    registry.recordEjection(instance.getServiceId(), instance.getInstanceId());
+                }
+            });
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,23 @@
+package com.nexia.gateway.lb;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LoadBalancingProperties.class)
+@LoadBalancerClients(defaultConfiguration = NexiaLoadBalancerConfiguration.class)
+public class LoadBalancingConfig {
+
+    @Bean
+    public InstanceRegistry instanceRegistry(LoadBalancingProperties properties, MeterRegistry meterRegistry) {
+        return new InstanceRegistry(properties, meterRegistry);
+    }
+
+    @Bean
+    public InstanceStatsFilter instanceStatsFilter(InstanceRegistry registry) {
+        return new InstanceStatsFilter(registry);
+    }
+}
@@ -0,0 +1,73 @@
+package com.nexia.gateway.lb;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client-side load balancing for {@code lb://<service>} routes.
+ *
+ * @param services  instances per service id
+ * @param strategy  how an instance is picked (power of two random choices, lower cost wins)
+ * @param ewmaDecay how quickly PEAK_EWMA forgets a latency spike
+ * @param slowStart new or re-admitted instances ramp up to full weight over this period (0 = off)
+ * @param ejection  passive outlier ejection based on consecutive failures
+ */
+@ConfigurationProperties("nexia.gateway.lb")
+public record LoadBalancingProperties(
+        Map<String, Service> services,
+        Strategy strategy,
+        Duration ewmaDecay,
+        Duration slowStart,
+        Ejection ejection
+) {
+
+    public enum Strategy {
+        /** Fewest requests in flight. */
+        LEAST_OUTSTANDING,
+        /** Peak-sensitive moving average of latency, scaled by requests in flight. */
+        PEAK_EWMA
+    }
+
+    /**
+     * @param instances       base URLs, e.g. {@code http://core-1:8081}
+     * @param instancesFile   optional file with one base URL per line ({@code #} comments); replaces
+     *                        {@code instances} while it exists and is re-read every {@code refreshInterval}
+     * @param refreshInterval how often {@code instancesFile} is checked for changes
+     */
+    public record Service(List<String> instances, String instancesFile, Duration refreshInterval) {
+
+        public Service {
+            instances = instances == null ? List.of() : instances.stream().map(String::trim).filter(s -> !s.isEmpty()).toList();
+            instancesFile = instancesFile == null || instancesFile.isBlank() ? null : instancesFile.trim();
+            refreshInterval = refreshInterval == null ? Duration.ofSeconds(5) : refreshInterval;
+        }
+    }
+
+    /**
+     * @param consecutiveFailures failures in a row (errors, 502/503/504) that eject an instance
+     * @param baseEjectionTime    first ejection length; multiplied by the number of ejections in a row
+     * @param maxEjectionTime     upper bound for one ejection
+     * @param maxEjectionPercent  never eject more than this share of a service's instances
+     */
+    public record Ejection(int consecutiveFailures, Duration baseEjectionTime, Duration maxEjectionTime,
+                           int maxEjectionPercent) {
+
+        public Ejection {
+            consecutiveFailures = consecutiveFailures <= 0 ? 5 : consecutiveFailures;
+            baseEjectionTime = baseEjectionTime == null ? Duration.ofSeconds(30) : baseEjectionTime;
+            maxEjectionTime = maxEjectionTime == null ? Duration.ofMinutes(5) : maxEjectionTime;
+            maxEjectionPercent = maxEjectionPercent <= 0 ? 50 : Math.min(100, maxEjectionPercent);
+        }
+    }
+
+    public LoadBalancingProperties {
+        services = services == null ? Map.of() : Map.copyOf(services);
+        strategy = strategy == null ? Strategy.LEAST_OUTSTANDING : strategy;
+        ewmaDecay = ewmaDecay == null ? Duration.ofSeconds(10) : ewmaDecay;
+        slowStart = slowStart == null ? Duration.ofSeconds(30) : slowStart;
+        ejection = ejection == null ? new Ejection(0, null, null, 0) : ejection;
+    }
+}
@@ -0,0 +1,100 @@
+package com.nexia.gateway.lb;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Power of two random choices: sample two healthy instances, route to the cheaper one
+ * ({@link InstanceStats#cost}). Cheap per pick and, unlike a global minimum, does not send a
+ * burst to whichever instance just looked best. Slow start lowers the odds of being sampled,
+ * so a warming instance gets a growing share even when every instance is idle.
+ */
+public class NexiaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final InstanceRegistry registry;
+    private final LongSupplier nanoClock;
+
+    public NexiaLoadBalancer(String serviceId, ObjectProvider<ServiceInstanceListSupplier> suppliers,
+                             InstanceRegistry registry) {
+        this(serviceId, suppliers, registry, System::nanoTime);
+    }
+
+    NexiaLoadBalancer(String serviceId, ObjectProvider<ServiceInstanceListSupplier> suppliers,
+                      InstanceRegistry registry, LongSupplier nanoClock) {
+        this.serviceId = serviceId;
+        this.suppliers = suppliers;
+        this.registry = registry;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable();
+        if (supplier == null) {
+            return Mono.just(new EmptyResponse());
+        }
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        long now = nanoClock.getAsLong();
+
+        List<ServiceInstance> candidates = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            InstanceStats stats = registry.stats(serviceId, instance.getInstanceId());
+            if (stats == null || !stats.isEjected(now)) {
+                candidates.add(instance);
+            }
+        }
+        // mayEject keeps at least one in rotation; this only covers a list swapped mid-ejection
+        if (candidates.isEmpty()) {
+            candidates = instances;
+        }
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+
+        ServiceInstance a = sample(candidates, null, now);
+        ServiceInstance b = sample(candidates, a, now);
+        return new DefaultResponse(cost(a) <= cost(b) ? a : b);
+    }
+
+    // Rejection sampling by slow-start weight; a few rounds are plenty since most weights are 1
+    private ServiceInstance sample(List<ServiceInstance> candidates, ServiceInstance exclude, long now) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ServiceInstance picked = null;
+        for (int round = 0; round < 8; round++) {
+            picked = candidates.get(random.nextInt(candidates.size()));
+            if (picked == exclude) {
+                continue;
+            }
+            InstanceStats stats = registry.stats(serviceId, picked.getInstanceId());
+            if (stats == null || random.nextDouble() < stats.weight(now)) {
+                return picked;
+            }
+        }
+        return picked != exclude ? picked : candidates.get(candidates.indexOf(exclude) == 0 ? 1 : 0);
+    }
+
+    private double cost(ServiceInstance instance) {
+        InstanceStats stats = registry.stats(serviceId, instance.getInstanceId());
+        return stats == null ? 0 : stats.cost(registry.properties().strategy());
+    }
+}
@@ -0,0 +1,44 @@
+package com.nexia.gateway.lb;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Beans for each per-service child context of spring-cloud-loadbalancer. Deliberately not a
+ * {@code @Configuration}: it is only registered through {@code @LoadBalancerClients} in
+ * {@link LoadBalancingConfig}, never component-scanned into the main context. The name must differ from
+ * spring-cloud-loadbalancer's own {@code LoadBalancerClientConfiguration}: same bean name, and ours is overridden.
+ */
+public class NexiaLoadBalancerConfiguration {
+
+    @Bean
+    public ServiceInstanceListSupplier serviceInstanceListSupplier(Environment environment, InstanceRegistry registry) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return serviceId;
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                // Always the current list; the registry already refreshes it
+                return Flux.defer(() -> Flux.just(registry.instances(serviceId)));
+            }
+        };
+    }
+
+    @Bean
+    public ReactorServiceInstanceLoadBalancer reactorServiceInstanceLoadBalancer(
+            Environment environment, ObjectProvider<ServiceInstanceListSupplier> suppliers, InstanceRegistry registry) {
+        return new NexiaLoadBalancer(environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME), suppliers, registry);
+    }
+}
@@ -0,0 +1,62 @@
+package com.nexia.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets. Each bucket is an immutable state swapped with CAS, so the hot
+ * path never blocks an event-loop thread. Idle buckets expire; a bucket that comes back
+ * starts full, which is what it would have refilled to anyway.
+ */
+class LocalTokenBucketStore implements TokenBucketStore {
+
+    private record State(double tokens, long refilledAtNanos) {
+    }
+
+    private final Cache<String, AtomicReference<State>> buckets;
+    private final LongSupplier nanoClock;
+
+    LocalTokenBucketStore(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    LocalTokenBucketStore(RateLimitProperties properties, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxKeys())
+                .expireAfterAccess(properties.idleTimeout())
+                .build();
+    }
+
+    long size() {
+        return buckets.estimatedSize();
+    }
+
+    @Override
+    public Mono<Decision> tryConsume(String key, RateLimitProperties.Limit limit) {
+        return Mono.just(consume(key, limit));
+    }
+
+    Decision consume(String key, RateLimitProperties.Limit limit) {
+        AtomicReference<State> bucket = buckets.get(key,
+                k -> new AtomicReference<>(new State(limit.burstCapacity(), nanoClock.getAsLong())));
+
+        while (true) {
+            State current = bucket.get();
+            long now = nanoClock.getAsLong();
+
+            double elapsedSeconds = Math.max(0L, now - current.refilledAtNanos()) / 1_000_000_000d;
+            double tokens = Math.min(limit.burstCapacity(), current.tokens() + elapsedSeconds * limit.replenishRate());
+            boolean allowed = tokens >= limit.requestedTokens();
+
+            State next = new State(allowed ? tokens - limit.requestedTokens() : tokens, now);
+            if (bucket.compareAndSet(current, next)) {
+                return new Decision(allowed, (long) Math.floor(next.tokens()));
+            }
+        }
+    }
+}
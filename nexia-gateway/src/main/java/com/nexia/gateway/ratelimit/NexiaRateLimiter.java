@@ -0,0 +1,154 @@
+package com.nexia.gateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rate limiter behind every {@code RequestRateLimiter} filter (see application.yml).
+ * <p>
+ * Limits come from {@link RateLimitProperties} per route id; the key from
+ * {@link PrincipalOrIpKeyResolver}. In REDIS mode buckets are shared across replicas and any
+ * Redis error or timeout falls back to the local buckets for that request, so an outage
+ * degrades accuracy instead of availability.
+ * <p>
+ * Responses carry Spring Cloud Gateway's {@code X-RateLimit-*} headers plus the IETF draft
+ * {@code RateLimit-Limit/Remaining/Reset}, and {@code Retry-After} when refused.
+ */
+@Primary
+@Component("nexiaRateLimiter")
+public class NexiaRateLimiter implements RateLimiter<RateLimitProperties.Limit> {
+
+    private static final Logger log = LoggerFactory.getLogger(NexiaRateLimiter.class);
+
+    private final RateLimitProperties properties;
+    private final LocalTokenBucketStore local;
+    private final TokenBucketStore redis;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public NexiaRateLimiter(RateLimitProperties properties,
+                            ObjectProvider<ReactiveStringRedisTemplate> redisTemplate,
+                            @Qualifier("redisRequestRateLimiterScript") ObjectProvider<RedisScript<List<Long>>> script,
+                            MeterRegistry meterRegistry) {
+        this(properties, new LocalTokenBucketStore(properties),
+                properties.mode() == RateLimitProperties.Mode.REDIS
+                        ? new RedisTokenBucketStore(redisTemplate.getObject(), script.getObject())
+                        : null,
+                meterRegistry);
+    }
+
+    NexiaRateLimiter(RateLimitProperties properties, LocalTokenBucketStore local, TokenBucketStore redis,
+                     MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.local = local;
+        this.redis = redis;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("nexia.gateway.ratelimit.local.buckets", local, LocalTokenBucketStore::size)
+                .description("In-memory rate-limit buckets")
+                .register(meterRegistry);
+        log.info("Rate limiting mode: {}", properties.mode());
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        if (!properties.enabled()) {
+            return Mono.just(new Response(true, Map.of()));
+        }
+        RateLimitProperties.Limit limit = properties.limitFor(routeId);
+        String key = routeId + ":" + id;
+
+        Mono<Outcome> outcome = redis == null
+                ? local.tryConsume(key, limit).map(d -> new Outcome(d, "local"))
+                : redis.tryConsume(key, limit)
+                        .timeout(properties.redisTimeout())
+                        .map(d -> new Outcome(d, "redis"))
+                        .onErrorResume(ex -> {
+                            log.debug("Redis rate limiter unavailable, using local buckets: {}", ex.toString());
+                            return local.tryConsume(key, limit).map(d -> new Outcome(d, "fallback"));
+                        });
+
+        return outcome.map(o -> {
+            count(routeId, o);
+            return new Response(o.decision().allowed(), headers(limit, o.decision()));
+        });
+    }
+
+    private record Outcome(TokenBucketStore.Decision decision, String store) {
+    }
+
+    private void count(String routeId, Outcome outcome) {
+        String result = outcome.decision().allowed() ? "allowed" : "denied";
+        counters.computeIfAbsent(routeId + '|' + result + '|' + outcome.store(), k ->
+                Counter.builder("nexia.gateway.ratelimit.requests")
+                        .description("Requests checked by the gateway rate limiter")
+                        .tag("route", routeId)
+                        .tag("result", result)
+                        .tag("store", outcome.store())
+                        .register(meterRegistry)
+        ).increment();
+    }
+
+    static Map<String, String> headers(RateLimitProperties.Limit limit, TokenBucketStore.Decision decision) {
+        long remaining = Math.max(0L, decision.remaining());
+        // Seconds until the bucket is full again (and, when refused, until this request would fit)
+        long reset = ceilDiv(limit.burstCapacity() - remaining, limit.replenishRate());
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("X-RateLimit-Remaining", Long.toString(remaining));
+        headers.put("X-RateLimit-Replenish-Rate", Integer.toString(limit.replenishRate()));
+        headers.put("X-RateLimit-Burst-Capacity", Integer.toString(limit.burstCapacity()));
+        headers.put("X-RateLimit-Requested-Tokens", Integer.toString(limit.requestedTokens()));
+        headers.put("RateLimit-Limit", Integer.toString(limit.burstCapacity()));
+        headers.put("RateLimit-Remaining", Long.toString(remaining));
+        headers.put("RateLimit-Reset", Long.toString(reset));
+        if (!decision.allowed()) {
+            long retryAfter = Math.max(1L, ceilDiv(limit.requestedTokens() - remaining, limit.replenishRate()));
+            headers.put(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        }
+        return headers;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return a <= 0 ? 0 : (a + b - 1) / b;
+    }
+
+    // StatefulConfigurable: limits are read from RateLimitProperties, not from filter args
+
+    @Override
+    public Map<String, RateLimitProperties.Limit> getConfig() {
+        Map<String, RateLimitProperties.Limit> config = new HashMap<>(properties.routes());
+        config.put("defaults", properties.defaults());
+        return config;
+    }
+
+    @Override
+    public Class<RateLimitProperties.Limit> getConfigClass() {
+        return RateLimitProperties.Limit.class;
+    }
+
+    @Override
+    public RateLimitProperties.Limit newConfig() {
+        return properties.defaults();
+    }
+}
@@ -0,0 +1,48 @@
+package com.nexia.gateway.ratelimit;
+
+import com.nexia.gateway.security.TokenRelayFilter;
+import com.nexia.gateway.security.VerifiedToken;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Rate-limit key: the user id verified by {@link TokenRelayFilter}, else the client IP.
+ * X-Forwarded-For is only honoured with {@code nexia.gateway.ratelimit.trustForwardedFor}
+ * (i.e. when a trusted proxy sits in front); otherwise clients could pick their own bucket.
+ */
+@Component("principalOrIpKeyResolver")
+public class PrincipalOrIpKeyResolver implements KeyResolver {
+
+    private final boolean trustForwardedFor;
+
+    public PrincipalOrIpKeyResolver(RateLimitProperties properties) {
+        this.trustForwardedFor = properties.trustForwardedFor();
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        VerifiedToken token = exchange.getAttribute(TokenRelayFilter.VERIFIED_TOKEN_ATTR);
+        if (token != null) {
+            return Mono.just("user:" + token.userId());
+        }
+        return Mono.just("ip:" + clientIp(exchange));
+    }
+
+    private String clientIp(ServerWebExchange exchange) {
+        if (trustForwardedFor) {
+            String forwarded = exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                return forwarded.split(",")[0].trim();
+            }
+        }
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        if (remote == null) {
+            return "unknown";
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+}
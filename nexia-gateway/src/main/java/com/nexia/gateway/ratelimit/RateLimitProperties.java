@@ -0,0 +1,59 @@
+package com.nexia.gateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Token-bucket limits per gateway route, applied per principal (or client IP when anonymous).
+ * Routes without an entry in {@code routes} use {@code defaults}.
+ */
+@ConfigurationProperties("nexia.gateway.ratelimit")
+public record RateLimitProperties(
+        Boolean enabled,
+        Mode mode,
+        Limit defaults,
+        Map<String, Limit> routes,
+        long maxKeys,
+        Duration idleTimeout,
+        Duration redisTimeout,
+        boolean trustForwardedFor
+) {
+
+    public enum Mode {
+        /** In-process buckets; each gateway replica enforces its own share. */
+        LOCAL,
+        /** Buckets in Redis shared by all replicas; falls back to LOCAL while Redis is unreachable. */
+        REDIS
+    }
+
+    /**
+     * @param replenishRate   tokens added per second (sustained requests/second)
+     * @param burstCapacity   bucket size (largest burst)
+     * @param requestedTokens tokens one request costs
+     */
+    public record Limit(int replenishRate, int burstCapacity, int requestedTokens) {
+
+        public Limit {
+            if (replenishRate <= 0 || burstCapacity <= 0) {
+                throw new IllegalArgumentException("replenishRate and burstCapacity must be positive");
+            }
+            requestedTokens = requestedTokens <= 0 ? 1 : requestedTokens;
+        }
+    }
+
+    public RateLimitProperties {
+        enabled = enabled == null || enabled;
+        mode = mode == null ? Mode.LOCAL : mode;
+        defaults = defaults == null ? new Limit(50, 100, 1) : defaults;
+        routes = routes == null ? Map.of() : Map.copyOf(routes);
+        maxKeys = maxKeys <= 0 ? 100_000 : maxKeys;
+        idleTimeout = idleTimeout == null ? Duration.ofMinutes(10) : idleTimeout;
+        redisTimeout = redisTimeout == null ? Duration.ofMillis(200) : redisTimeout;
+    }
+
+    public Limit limitFor(String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+}
@@ -0,0 +1,43 @@
+package com.nexia.gateway.ratelimit;
+
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token buckets shared by all gateway replicas, using Spring Cloud Gateway's own
+ * {@code request_rate_limiter.lua} (same key layout as its RedisRateLimiter, refill
+ * computed atomically in Redis with Redis time).
+ */
+class RedisTokenBucketStore implements TokenBucketStore {
+
+    private final ReactiveStringRedisTemplate redis;
+    private final RedisScript<List<Long>> script;
+
+    RedisTokenBucketStore(ReactiveStringRedisTemplate redis, RedisScript<List<Long>> script) {
+        this.redis = redis;
+        this.script = script;
+    }
+
+    @Override
+    public Mono<Decision> tryConsume(String key, RateLimitProperties.Limit limit) {
+        // Hash tag keeps both keys of a bucket in the same cluster slot
+        String prefix = "request_rate_limiter.{" + key + "}";
+        List<String> keys = List.of(prefix + ".tokens", prefix + ".timestamp");
+        List<String> args = List.of(
+                Integer.toString(limit.replenishRate()),
+                Integer.toString(limit.burstCapacity()),
+                "",
+                Integer.toString(limit.requestedTokens()));
+
+        return redis.execute(script, keys, args)
+                .reduce(new ArrayList<Long>(), (all, part) -> {
+                    all.addAll(part);
+                    return all;
+                })
+                .map(result -> new Decision(result.get(0) == 1L, result.get(1)));
+    }
+}
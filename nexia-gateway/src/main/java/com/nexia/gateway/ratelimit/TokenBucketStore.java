@@ -0,0 +1,17 @@
+package com.nexia.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Where bucket state lives (in process or Redis).
+ */
+interface TokenBucketStore {
+
+    /**
+     * @param remaining whole tokens left after this request (or after the refused attempt)
+     */
+    record Decision(boolean allowed, long remaining) {
+    }
+
+    Mono<Decision> tryConsume(String key, RateLimitProperties.Limit limit);
+}
@@ -0,0 +1,310 @@
+package com.nexia.gateway.resilience;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.internal.shaded.reactor.pool.PoolAcquirePendingLimitException;
+import reactor.netty.internal.shaded.reactor.pool.PoolAcquireTimeoutException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Replaces the fixed {@code Retry} default filter for idempotent requests (GET/HEAD without a body).
+ * <ul>
+ *   <li>Failed attempts (connect errors, attempt timeouts, configured 5xx) are retried with exponential
+ *       backoff, but only while the {@link RetryBudget} has room and the circuit breaker is CLOSED,
+ *       so a brownout is not multiplied by the retry count.</li>
+ *   <li>Each attempt is cut off after {@code retry.perAttemptTimeout}. The breaker's time limit covers
+ *       all attempts plus backoff (see {@link ResilienceConfig}), so it never preempts a retry.</li>
+ *   <li>Optionally, a GET still outstanding after the route's recent latency percentile is sent a
+ *       second time and the first response wins. Hedges draw from the same budget.</li>
+ * </ul>
+ * Runs right before upstream resolution and routing, inside the route's CircuitBreaker, so each
+ * attempt goes through load balancing again and the breaker sees one call per client request.
+ */
+@Component
+public class AdaptiveRetryFilter implements GlobalFilter, Ordered {
+
+    // After the request URL is known, before lb:// resolution (10150) and routing
+    public static final int ORDER = RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 100;
+
+    private final ResilienceProperties properties;
+    private final RetryBudget budget;
+    private final ObjectProvider<ReactiveResilience4JCircuitBreakerFactory> breakers;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public AdaptiveRetryFilter(ResilienceProperties properties,
+                               ObjectProvider<ReactiveResilience4JCircuitBreakerFactory> breakers,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.budget = new RetryBudget(properties.budget());
+        this.breakers = breakers;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("nexia.gateway.retry.budget.remaining", budget, RetryBudget::remaining)
+                .description("Retries/hedges still allowed in the current budget window")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.enabled()) {
+            return chain.filter(exchange);
+        }
+        budget.recordRequest();
+
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String routeId = route == null ? "unknown" : route.getId();
+        if (!properties.appliesTo(routeId) || !idempotentWithoutBody(exchange.getRequest())) {
+            return chain.filter(exchange);
+        }
+
+        // Every attempt re-reads the (empty) body; never subscribe to the inbound stream twice
+        ServerWebExchange replayable = exchange.mutate().request(new EmptyBodyRequest(exchange.getRequest())).build();
+        return attempt(replayable, chain, routeId, exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR), 1);
+    }
+
+    private Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain, String routeId,
+                               Object requestUrl, int attempt) {
+        Mono<Void> call = attempt == 1 && properties.hedge().enabled() && exchange.getRequest().getMethod() == HttpMethod.GET
+                ? hedged(exchange, chain, routeId, requestUrl)
+                : timed(exchange, chain, routeId);
+
+        return call.timeout(properties.retry().perAttemptTimeout())
+                .then(Mono.just(Optional.<Throwable>empty()))
+                .onErrorResume(ex -> Mono.just(Optional.of(ex)))
+                .flatMap(failure -> {
+                    boolean retryable = failure.map(AdaptiveRetryFilter::isRetryableError)
+                            .orElseGet(() -> isRetryableStatus(exchange.getResponse().getStatusCode()));
+                    if (retryable && mayRetry(exchange, routeId, attempt)) {
+                        discardAttempt(exchange, requestUrl);
+                        return Mono.delay(properties.retry().backoff(attempt))
+                                .then(attempt(exchange, chain, routeId, requestUrl, attempt + 1));
+                    }
+                    return failure.map(Mono::<Void>error).orElseGet(Mono::empty);
+                });
+    }
+
+    private Mono<Void> timed(ServerWebExchange exchange, GatewayFilterChain chain, String routeId) {
+        long start = System.nanoTime();
+        return chain.filter(exchange).doOnSuccess(v -> latency(routeId).record(System.nanoTime() - start));
+    }
+
+    /**
+     * Primary plus, after the hedging delay, one copy on a {@link HedgeExchange}. Whichever gets
+     * response headers first wins; the other is cancelled and its connection released.
+     */
+    private Mono<Void> hedged(ServerWebExchange exchange, GatewayFilterChain chain, String routeId, Object requestUrl) {
+        Duration delay = hedgeDelay(routeId);
+        if (delay == null) {
+            return timed(exchange, chain, routeId);
+        }
+
+        AtomicReference<Throwable> primaryError = new AtomicReference<>();
+        AtomicReference<HedgeExchange> hedgeRef = new AtomicReference<>();
+
+        Mono<ServerWebExchange> primary = timed(exchange, chain, routeId)
+                .then(Mono.just(exchange))
+                .doOnError(primaryError::set);
+
+        Mono<ServerWebExchange> hedge = Mono.delay(delay).flatMap(tick -> {
+            if (!mayExtend(routeId, "hedges")) {
+                return Mono.empty();
+            }
+            count("hedges", routeId, "sent");
+            Map<String, Object> attributes = new ConcurrentHashMap<>(exchange.getAttributes());
+            attributes.remove(CLIENT_RESPONSE_CONN_ATTR);
+            attributes.remove(ServerWebExchangeUtils.GATEWAY_ALREADY_ROUTED_ATTR);
+            if (requestUrl != null) {
+                attributes.put(GATEWAY_REQUEST_URL_ATTR, requestUrl);
+            }
+            HedgeExchange copy = new HedgeExchange(exchange, exchange.getRequest(), attributes);
+            hedgeRef.set(copy);
+            return chain.filter(copy).then(Mono.just((ServerWebExchange) copy));
+        });
+
+        return Mono.firstWithValue(primary, hedge)
+                // Both failed (or the hedge never went out): surface the primary's own error
+                .onErrorMap(NoSuchElementException.class, ex -> primaryError.get() != null ? primaryError.get() : ex)
+                .doOnNext(winner -> {
+                    if (winner instanceof HedgeExchange copy) {
+                        count("hedges", routeId, "won");
+                        adopt(exchange, copy);
+                    } else {
+                        HedgeExchange loser = hedgeRef.get();
+                        if (loser != null) {
+                            release(loser.getAttribute(CLIENT_RESPONSE_CONN_ATTR));
+                        }
+                    }
+                })
+                .then();
+    }
+
+    private Duration hedgeDelay(String routeId) {
+        ResilienceProperties.Hedge hedge = properties.hedge();
+        Duration p = latency(routeId).percentile(hedge.percentile(), hedge.minSamples());
+        if (p == null) {
+            return null;
+        }
+        return p.compareTo(hedge.minDelay()) < 0 ? hedge.minDelay() : p;
+    }
+
+    /**
+     * Moves the winning hedge's upstream response onto the real exchange; the primary's
+     * connection (if it got that far) is dropped.
+     */
+    private static void adopt(ServerWebExchange exchange, HedgeExchange winner) {
+        release(exchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR));
+        ServerWebExchangeUtils.reset(exchange);
+
+        exchange.getAttributes().putAll(winner.getAttributes());
+        exchange.getResponse().setStatusCode(winner.getResponse().getStatusCode());
+        exchange.getResponse().getHeaders().putAll(winner.getResponse().getHeaders());
+    }
+
+    private boolean mayRetry(ServerWebExchange exchange, String routeId, int attempt) {
+        if (attempt >= properties.retry().maxAttempts() || exchange.getResponse().isCommitted()) {
+            return false;
+        }
+        if (!mayExtend(routeId, "retries")) {
+            return false;
+        }
+        count("retries", routeId, "retried");
+        return true;
+    }
+
+    /**
+     * Shared gate for retries and hedges: breaker CLOSED and budget left.
+     */
+    private boolean mayExtend(String routeId, String kind) {
+        if (!breakerClosed()) {
+            count(kind, routeId, "breaker_open");
+            return false;
+        }
+        if (!budget.tryWithdraw()) {
+            count(kind, routeId, "budget_exhausted");
+            return false;
+        }
+        return true;
+    }
+
+    private boolean breakerClosed() {
+        ReactiveResilience4JCircuitBreakerFactory factory = breakers.getIfAvailable();
+        if (factory == null) {
+            return true;
+        }
+        return factory.getCircuitBreakerRegistry().find(properties.circuitBreaker())
+                .map(cb -> cb.getState() == CircuitBreaker.State.CLOSED)
+                .orElse(true);
+    }
+
+    private void discardAttempt(ServerWebExchange exchange, Object requestUrl) {
+        release(exchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR));
+        exchange.getAttributes().remove(CLIENT_RESPONSE_CONN_ATTR);
+        ServerWebExchangeUtils.reset(exchange);
+        // lb:// is resolved per attempt, so a retry can land on another instance
+        if (requestUrl != null) {
+            exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, requestUrl);
+        }
+    }
+
+    private static void release(Connection connection) {
+        if (connection != null) {
+            connection.dispose();
+        }
+    }
+
+    private boolean isRetryableStatus(HttpStatusCode status) {
+        return status != null && properties.retry().statuses().contains(status.value());
+    }
+
+    private static boolean isRetryableError(Throwable error) {
+        Throwable ex = Exceptions.unwrap(error);
+        // An exhausted connection pool is local overload; retrying would only deepen the queue
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PoolAcquireTimeoutException || cause instanceof PoolAcquirePendingLimitException) {
+                return false;
+            }
+        }
+        if (ex instanceof ResponseStatusException rse) {
+            // NettyRoutingFilter reports its response timeout as 504
+            return rse.getStatusCode().value() == HttpStatus.GATEWAY_TIMEOUT.value();
+        }
+        return ex instanceof IOException || ex instanceof TimeoutException;
+    }
+
+    private static boolean idempotentWithoutBody(ServerHttpRequest request) {
+        HttpMethod method = request.getMethod();
+        HttpHeaders headers = request.getHeaders();
+        return (method == HttpMethod.GET || method == HttpMethod.HEAD)
+                && headers.getContentLength() <= 0
+                && !headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+    }
+
+    private LatencyWindow latency(String routeId) {
+        return latencies.computeIfAbsent(routeId, id -> new LatencyWindow(properties.hedge().window()));
+    }
+
+    private void count(String kind, String routeId, String result) {
+        counters.computeIfAbsent(kind + ":" + routeId + ":" + result, k -> Counter.builder("nexia.gateway." + kind)
+                .description("retries".equals(kind)
+                        ? "Upstream retries by outcome (retried, budget_exhausted, breaker_open)"
+                        : "Hedged requests by outcome (sent, won, budget_exhausted, breaker_open)")
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(meterRegistry)).increment();
+    }
+
+    private static final class EmptyBodyRequest extends ServerHttpRequestDecorator {
+
+        EmptyBodyRequest(ServerHttpRequest delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return Flux.empty();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.nexia.gateway.resilience;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.AbstractServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Second, concurrent copy of an exchange for a hedged request. It has its own attributes and a
+ * response that only records status and headers, so the routing filters can run for it in
+ * parallel with the original; the winner's state is then copied onto the real exchange.
+ * Never written to: the body is streamed later from whichever connection won.
+ */
+final class HedgeExchange extends ServerWebExchangeDecorator {
+
+    private final ServerHttpRequest request;
+    private final Map<String, Object> attributes;
+    private final ServerHttpResponse response;
+
+    HedgeExchange(ServerWebExchange original, ServerHttpRequest request, Map<String, Object> attributes) {
+        super(original);
+        this.request = request;
+        this.attributes = new ConcurrentHashMap<>(attributes);
+        this.response = new DetachedResponse(original.getResponse());
+    }
+
+    @Override
+    public ServerHttpRequest getRequest() {
+        return request;
+    }
+
+    @Override
+    public ServerHttpResponse getResponse() {
+        return response;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getAttribute(String name) {
+        return (T) attributes.get(name);
+    }
+
+    private static final class DetachedResponse extends AbstractServerHttpResponse {
+
+        DetachedResponse(ServerHttpResponse original) {
+            super(original.bufferFactory(), new HttpHeaders());
+        }
+
+        @Override
+        public <T> T getNativeResponse() {
+            throw new IllegalStateException("Hedge response has no native response");
+        }
+
+        @Override
+        protected void applyStatusCode() {
+        }
+
+        @Override
+        protected void applyHeaders() {
+        }
+
+        @Override
+        protected void applyCookies() {
+        }
+
+        @Override
+        protected Mono<Void> writeWithInternal(Publisher<? extends DataBuffer> body) {
+            return Mono.error(new IllegalStateException("Hedge responses are never written"));
+        }
+
+        @Override
+        protected Mono<Void> writeAndFlushWithInternal(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return Mono.error(new IllegalStateException("Hedge responses are never written"));
+        }
+    }
+}
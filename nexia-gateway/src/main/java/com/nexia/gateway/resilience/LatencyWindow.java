@@ -0,0 +1,78 @@
+package com.nexia.gateway.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Recent upstream latencies for one route as a log-scale histogram (about 10% per bucket,
+ * 1 ms to ~100 s), kept in two generations so percentiles always cover between one and two
+ * windows of traffic. Used to pick the hedging delay.
+ */
+final class LatencyWindow {
+
+    private static final double GROWTH = 1.1;
+    private static final int BUCKETS = 122;
+
+    private record Generation(long startedAtNanos, AtomicLongArray counts) {
+    }
+
+    private final long windowNanos;
+    private final AtomicReference<Generation> current;
+    private volatile Generation previous;
+
+    LatencyWindow(Duration window) {
+        this.windowNanos = window.toNanos();
+        this.current = new AtomicReference<>(new Generation(System.nanoTime(), new AtomicLongArray(BUCKETS)));
+        this.previous = new Generation(System.nanoTime(), new AtomicLongArray(BUCKETS));
+    }
+
+    void record(long nanos) {
+        double millis = Math.max(1d, nanos / 1_000_000d);
+        int bucket = (int) Math.min(BUCKETS - 1, Math.log(millis) / Math.log(GROWTH));
+        rotate().counts().incrementAndGet(bucket);
+    }
+
+    /**
+     * @return the latency at {@code percentile}, or null with fewer than {@code minSamples} samples
+     */
+    Duration percentile(double percentile, int minSamples) {
+        AtomicLongArray now = rotate().counts();
+        AtomicLongArray before = previous.counts();
+
+        long total = 0;
+        long[] merged = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            merged[i] = now.get(i) + before.get(i);
+            total += merged[i];
+        }
+        if (total < minSamples) {
+            return null;
+        }
+
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += merged[i];
+            if (seen >= rank) {
+                // upper bound of the bucket
+                return Duration.ofNanos((long) (Math.pow(GROWTH, i + 1) * 1_000_000d));
+            }
+        }
+        return null;
+    }
+
+    private Generation rotate() {
+        Generation gen = current.get();
+        long now = System.nanoTime();
+        if (now - gen.startedAtNanos() < windowNanos) {
+            return gen;
+        }
+        Generation next = new Generation(now, new AtomicLongArray(BUCKETS));
+        if (current.compareAndSet(gen, next)) {
+            previous = gen;
+            return next;
+        }
+        return current.get();
+    }
+}
@@ -0,0 +1,25 @@
+package com.nexia.gateway.resilience;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ResilienceConfig {
+
+    // AdaptiveRetryFilter runs inside this breaker: Resilience4J's default 1s limit would cover all
+    // attempts together and cancel the chain before a timed-out attempt could be retried
+    @Bean
+    public Customizer<ReactiveResilience4JCircuitBreakerFactory> retryAwareTimeLimiter(ResilienceProperties properties) {
+        return factory -> factory.configure(builder -> builder
+                .circuitBreakerConfig(CircuitBreakerConfig.ofDefaults())
+                .timeLimiterConfig(TimeLimiterConfig.custom()
+                        .timeoutDuration(properties.retry().totalTimeout())
+                        .build()), properties.circuitBreaker());
+    }
+}
@@ -0,0 +1,107 @@
+package com.nexia.gateway.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Budgeted retries and hedged requests for idempotent upstream calls (GET/HEAD).
+ *
+ * @param enabled        master switch; off = one attempt per request, as without the filter
+ * @param routes         route ids to apply to (empty = all routes)
+ * @param circuitBreaker breaker whose state gates retries and hedges (only while CLOSED)
+ */
+@ConfigurationProperties("nexia.gateway.resilience")
+public record ResilienceProperties(
+        Boolean enabled,
+        List<String> routes,
+        String circuitBreaker,
+        Retry retry,
+        Budget budget,
+        Hedge hedge
+) {
+
+    /**
+     * @param maxAttempts       total attempts including the first
+     * @param statuses          upstream statuses worth another attempt (connect errors and attempt timeouts always are)
+     * @param firstBackoff      delay before the first retry, doubled per attempt up to {@code maxBackoff}
+     * @param perAttemptTimeout limit for one attempt, including a hedge racing it; a timed-out attempt
+     *                          is retried unless the response has already started
+     */
+    public record Retry(int maxAttempts, Set<Integer> statuses, Duration firstBackoff, Duration maxBackoff,
+                        Duration perAttemptTimeout) {
+
+        public Retry {
+            maxAttempts = maxAttempts <= 0 ? 3 : maxAttempts;
+            statuses = statuses == null || statuses.isEmpty() ? Set.of(502, 503, 504) : Set.copyOf(statuses);
+            firstBackoff = firstBackoff == null ? Duration.ofMillis(50) : firstBackoff;
+            maxBackoff = maxBackoff == null ? Duration.ofMillis(500) : maxBackoff;
+            perAttemptTimeout = perAttemptTimeout == null ? Duration.ofSeconds(2) : perAttemptTimeout;
+        }
+
+        /**
+         * Delay before attempt {@code attempt + 1}.
+         */
+        public Duration backoff(int attempt) {
+            long millis = firstBackoff.toMillis() << Math.min(attempt - 1, 16);
+            return Duration.ofMillis(Math.min(millis, maxBackoff.toMillis()));
+        }
+
+        /**
+         * Longest a request can spend on all attempts and backoffs: the circuit breaker's time limit.
+         */
+        public Duration totalTimeout() {
+            Duration total = perAttemptTimeout.multipliedBy(maxAttempts);
+            for (int attempt = 1; attempt < maxAttempts; attempt++) {
+                total = total.plus(backoff(attempt));
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Retries and hedges together may add at most {@code ratio} of the requests seen in
+     * {@code window}, plus {@code minPerSecond} so quiet periods can still retry at all.
+     */
+    public record Budget(double ratio, int minPerSecond, Duration window) {
+
+        public Budget {
+            ratio = ratio <= 0 ? 0.1 : ratio;
+            minPerSecond = Math.max(0, minPerSecond);
+            window = window == null ? Duration.ofSeconds(10) : window;
+        }
+    }
+
+    /**
+     * A second copy of a GET is sent once the first has been outstanding longer than the route's
+     * {@code percentile} latency (never sooner than {@code minDelay}); the first response wins.
+     *
+     * @param minSamples latencies needed in the window before hedging starts
+     * @param window     how far back the latency percentile looks
+     */
+    public record Hedge(Boolean enabled, double percentile, Duration minDelay, int minSamples, Duration window) {
+
+        public Hedge {
+            enabled = enabled != null && enabled;
+            percentile = percentile <= 0 || percentile >= 1 ? 0.95 : percentile;
+            minDelay = minDelay == null ? Duration.ofMillis(20) : minDelay;
+            minSamples = minSamples <= 0 ? 200 : minSamples;
+            window = window == null ? Duration.ofSeconds(30) : window;
+        }
+    }
+
+    public ResilienceProperties {
+        enabled = enabled == null || enabled;
+        routes = routes == null ? List.of() : List.copyOf(routes);
+        circuitBreaker = circuitBreaker == null || circuitBreaker.isBlank() ? "nexiaCoreCircuitBreaker" : circuitBreaker;
+        retry = retry == null ? new Retry(0, null, null, null, null) : retry;
+        budget = budget == null ? new Budget(0, 5, null) : budget;
+        hedge = hedge == null ? new Hedge(null, 0, null, 0, null) : hedge;
+    }
+
+    public boolean appliesTo(String routeId) {
+        return routes.isEmpty() || routes.contains(routeId);
+    }
+}
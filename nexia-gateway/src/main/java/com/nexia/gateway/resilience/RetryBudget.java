@@ -0,0 +1,102 @@
+package com.nexia.gateway.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding-window retry budget: extra attempts (retries and hedges) may not exceed a fixed
+ * share of the requests seen recently. During a brownout every request fails, the budget
+ * drains after a few retries and further failures go straight back to the caller instead of
+ * multiplying load on the struggling upstream.
+ * <p>
+ * The window is a ring of one-second slots; a slot is recycled lazily when its second comes
+ * round again, by swapping in a fresh slot so counts made for the new second are never wiped.
+ * Counting is lock-free and approximate under races, which is fine for a budget.
+ */
+final class RetryBudget {
+
+    private final int slots;
+    private final double ratio;
+    private final long reserve;
+    private final LongSupplier nanoClock;
+    private final AtomicReferenceArray<Slot> ring;
+
+    RetryBudget(ResilienceProperties.Budget budget) {
+        this(budget, System::nanoTime);
+    }
+
+    RetryBudget(ResilienceProperties.Budget budget, LongSupplier nanoClock) {
+        this.slots = (int) Math.max(1, budget.window().toSeconds());
+        this.ratio = budget.ratio();
+        this.reserve = (long) budget.minPerSecond() * slots;
+        this.nanoClock = nanoClock;
+        this.ring = new AtomicReferenceArray<>(slots);
+    }
+
+    void recordRequest() {
+        slot(currentSecond()).requests.incrementAndGet();
+    }
+
+    /**
+     * Takes one extra attempt from the budget if any is left.
+     */
+    boolean tryWithdraw() {
+        long now = currentSecond();
+        if (remaining(now) < 1) {
+            return false;
+        }
+        slot(now).spent.incrementAndGet();
+        return true;
+    }
+
+    long remaining() {
+        return Math.max(0, (long) Math.floor(remaining(currentSecond())));
+    }
+
+    private double remaining(long now) {
+        long seen = 0;
+        long used = 0;
+        for (int i = 0; i < slots; i++) {
+            Slot slot = ring.get(i);
+            // Slots not touched within the window hold stale counts: skip them
+            if (slot != null && now - slot.second < slots) {
+                seen += slot.requests.get();
+                used += slot.spent.get();
+            }
+        }
+        return seen * ratio + reserve - used;
+    }
+
+    private Slot slot(long second) {
+        // nanoTime has an arbitrary origin and may be negative
+        int index = Math.floorMod(second, slots);
+        while (true) {
+            Slot current = ring.get(index);
+            // A newer second already owns the slot when this thread read the clock a bit earlier
+            if (current != null && current.second - second >= 0) {
+                return current;
+            }
+            Slot fresh = new Slot(second);
+            if (ring.compareAndSet(index, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private long currentSecond() {
+        return Duration.ofNanos(nanoClock.getAsLong()).toSeconds();
+    }
+
+    private static final class Slot {
+
+        final long second;
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong spent = new AtomicLong();
+
+        Slot(long second) {
+            this.second = second;
+        }
+    }
+}
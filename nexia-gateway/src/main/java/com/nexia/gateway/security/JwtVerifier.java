@@ -0,0 +1,116 @@
+package com.nexia.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Verifies nexia-core access tokens locally: same HMAC key and issuer as core's JwtService.
+ * Successful verifications are cached by token digest until the token's own expiry, so a
+ * client repeating its token pays for the signature check once.
+ */
+@Component
+public class JwtVerifier {
+
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verified;
+
+    public JwtVerifier(@Value("${nexia.security.jwt.secret}") String secret,
+                       @Value("${nexia.security.jwt.issuer:nexia}") String issuer,
+                       @Value("${nexia.gateway.auth.cacheSize:10000}") long cacheSize,
+                       MeterRegistry meterRegistry) {
+        if (secret == null || secret.trim().length() < 32) {
+            throw new IllegalStateException("nexia.security.jwt.secret must be at least 32 characters");
+        }
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secret.trim().getBytes(StandardCharsets.UTF_8)))
+                .requireIssuer(issuer)
+                .build();
+
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "gateway.jwt.verified");
+    }
+
+    /**
+     * Empty for a bad signature, wrong issuer, expired token or missing claims.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        String digest = digest(token);
+
+        VerifiedToken cached = verified.getIfPresent(digest);
+        if (cached != null) {
+            // The cache expires entries at exp, but eviction is lazy
+            return cached.expiresAt().isAfter(Instant.now()) ? Optional.of(cached) : Optional.empty();
+        }
+
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            String email = claims.get("email", String.class);
+            String role = claims.get("role", String.class);
+            if (claims.getSubject() == null || email == null || role == null || claims.getExpiration() == null) {
+                return Optional.empty();
+            }
+
+            VerifiedToken identity = new VerifiedToken(
+                    claims.getSubject(),
+                    email,
+                    role,
+                    claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+                    claims.getExpiration().toInstant(),
+                    claims.get("ver", Integer.class));
+            verified.put(digest, identity);
+            return Optional.of(identity);
+        } catch (JwtException | IllegalArgumentException ex) {
+            // Failures are never cached
+            return Optional.empty();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            long nanos = (token.expiresAt().toEpochMilli() - System.currentTimeMillis()) * 1_000_000L;
+            return Math.max(0L, nanos);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.nexia.gateway.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * Edge authentication for /api/**.
+ * <p>
+ * Bearer tokens are verified here; a bad or expired token is answered with 401 without
+ * touching nexia-core. For a good one the verified identity travels downstream in
+ * {@code X-Nexia-User-*} headers, vouched for by the shared secret in
+ * {@value #GATEWAY_SECRET_HEADER}, so core can skip its own JWT parsing. Client-supplied
+ * copies of these headers are always removed first.
+ */
+@Component
+public class TokenRelayFilter implements GlobalFilter, Ordered {
+
+    public static final String USER_ID_HEADER = "X-Nexia-User-Id";
+    public static final String USER_EMAIL_HEADER = "X-Nexia-User-Email";
+    public static final String USER_ROLE_HEADER = "X-Nexia-User-Role";
+    public static final String TOKEN_ISSUED_AT_HEADER = "X-Nexia-Token-Issued-At";
+    public static final String TOKEN_VERSION_HEADER = "X-Nexia-Token-Version";
+    public static final String GATEWAY_SECRET_HEADER = "X-Nexia-Gateway-Secret";
+
+    /**
+     * Exchange attribute holding the {@link VerifiedToken} for later filters (rate limiting, caching).
+     */
+    public static final String VERIFIED_TOKEN_ATTR = TokenRelayFilter.class.getName() + ".verifiedToken";
+
+    // Before rate limiting, caching and routing
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    private final JwtVerifier verifier;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final String sharedSecret;
+
+    public TokenRelayFilter(JwtVerifier verifier,
+                            ObjectMapper objectMapper,
+                            @Value("${nexia.gateway.auth.enabled:true}") boolean enabled,
+                            @Value("${nexia.gateway.auth.sharedSecret:}") String sharedSecret) {
+        this.verifier = verifier;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.sharedSecret = sharedSecret == null ? "" : sharedSecret.trim();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+
+        // Never let clients assert an identity themselves
+        ServerHttpRequest.Builder mutated = request.mutate().headers(headers -> {
+            headers.remove(USER_ID_HEADER);
+            headers.remove(USER_EMAIL_HEADER);
+            headers.remove(USER_ROLE_HEADER);
+            headers.remove(TOKEN_ISSUED_AT_HEADER);
+            headers.remove(TOKEN_VERSION_HEADER);
+            headers.remove(GATEWAY_SECRET_HEADER);
+        });
+
+        String token = bearerToken(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+
+        if (!enabled || token == null || !path.startsWith("/api/") || path.startsWith("/api/auth/")) {
+            return chain.filter(exchange.mutate().request(mutated.build()).build());
+        }
+
+        Optional<VerifiedToken> verified = verifier.verify(token);
+        if (verified.isEmpty()) {
+            return unauthorized(exchange.getResponse());
+        }
+
+        VerifiedToken identity = verified.get();
+        exchange.getAttributes().put(VERIFIED_TOKEN_ATTR, identity);
+
+        if (!sharedSecret.isEmpty()) {
+            mutated.headers(headers -> {
+                headers.set(USER_ID_HEADER, identity.userId());
+                headers.set(USER_EMAIL_HEADER, identity.email());
+                headers.set(USER_ROLE_HEADER, identity.role());
+                if (identity.issuedAt() != null) {
+                    headers.set(TOKEN_ISSUED_AT_HEADER, Long.toString(identity.issuedAt().getEpochSecond()));
+                }
+                if (identity.tokenVersion() != null) {
+                    headers.set(TOKEN_VERSION_HEADER, identity.tokenVersion().toString());
+                }
+                headers.set(GATEWAY_SECRET_HEADER, sharedSecret);
+            });
+        }
+
+        return chain.filter(exchange.mutate().request(mutated.build()).build());
+    }
+
+    /**
+     * Same leniency as core's JwtAuthFilter: "Bearer x", "x", repeated prefixes.
+     */
+    private static String bearerToken(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        String token = header.trim();
+        while (token.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            token = token.substring(7).trim();
+        }
+        return token.isEmpty() ? null : token;
+    }
+
+    private Mono<Void> unauthorized(ServerHttpResponse response) {
+        ProblemDetail pd = ProblemDetail.forStatus(HttpStatus.UNAUTHORIZED);
+        pd.setTitle("Unauthorized");
+        pd.setDetail("Invalid or expired access token");
+        pd.setType(URI.create("https://nexia.dev/problems/invalid-token"));
+
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+
+        try {
+            DataBuffer body = response.bufferFactory().wrap(objectMapper.writeValueAsBytes(pd));
+            return response.writeWith(Mono.just(body));
+        } catch (JsonProcessingException ex) {
+            return response.setComplete();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.nexia.gateway.security;
+
+import java.time.Instant;
+
+/**
+ * Identity extracted from a JWT whose signature, issuer and expiry were checked at the edge.
+ */
+public record VerifiedToken(
+        String userId,
+        String email,
+        String role,
+        Instant issuedAt,
+        Instant expiresAt,
+        Integer tokenVersion
+) {
+}
@@ -0,0 +1,46 @@
+package com.nexia.gateway.upstream;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+
+/**
+ * {@link NettyRoutingFilter} that sends each route through its own connection pool
+ * (see {@link RouteHttpClients}). Replaces the default routing filter, which is switched off
+ * with {@code spring.cloud.gateway.global-filter.netty-routing.enabled=false}.
+ */
+public class RouteAwareRoutingFilter extends NettyRoutingFilter {
+
+    private final RouteHttpClients clients;
+
+    public RouteAwareRoutingFilter(HttpClient httpClient,
+                                   ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                   HttpClientProperties properties,
+                                   RouteHttpClients clients) {
+        super(httpClient, headersFilters, properties);
+        this.clients = clients;
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient client = clients.forRoute(route.getId());
+        if (client == null) {
+            return super.getHttpClient(route, exchange);
+        }
+        // Same per-route metadata override the default filter honours
+        Object connectTimeout = route.getMetadata().get(CONNECT_TIMEOUT_ATTR);
+        if (connectTimeout != null) {
+            client = client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Integer.parseInt(connectTimeout.toString()));
+        }
+        return client;
+    }
+}
@@ -0,0 +1,48 @@
+package com.nexia.gateway.upstream;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(UpstreamProperties.class)
+public class UpstreamClientConfig {
+
+    @Bean
+    public RouteHttpClients routeHttpClients(UpstreamProperties properties,
+                                             HttpClientProperties gatewayProperties,
+                                             ServerProperties serverProperties,
+                                             HttpClientSslConfigurer sslConfigurer,
+                                             ObjectProvider<HttpClientCustomizer> customizers) {
+        return new RouteHttpClients(properties, gatewayProperties, serverProperties, sslConfigurer,
+                customizers.orderedStream().toList());
+    }
+
+    @Bean
+    public NettyRoutingFilter routingFilter(HttpClient httpClient,
+                                            ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                            HttpClientProperties properties,
+                                            RouteHttpClients clients) {
+        return new RouteAwareRoutingFilter(httpClient, headersFilters, properties, clients);
+    }
+
+    // Switched off together with the default routing filter, so it is registered here
+    @Bean
+    @ConditionalOnMissingBean
+    public NettyWriteResponseFilter nettyWriteResponseFilter(GatewayProperties properties) {
+        return new NettyWriteResponseFilter(properties.getStreamingMediaTypes());
+    }
+}
@@ -0,0 +1,73 @@
+package com.nexia.gateway.upstream;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Connection pools to upstream services, one per gateway route. A route without an entry in
+ * {@code routes} gets its own pool with the {@code defaults}; unset fields of a route entry are
+ * taken from the defaults as well. Timeouts, SSL and proxy settings still come from
+ * {@code spring.cloud.gateway.httpclient}.
+ *
+ * @param enabled false = every route shares Spring Cloud Gateway's single default pool
+ */
+@ConfigurationProperties("nexia.gateway.upstream")
+public record UpstreamProperties(Boolean enabled, Pool defaults, Map<String, Pool> routes) {
+
+    public enum Leasing {
+        /** Oldest idle connection first: spreads use over all connections. */
+        FIFO,
+        /** Most recently used first: hot connections stay warm, surplus ones idle out. */
+        LIFO
+    }
+
+    /**
+     * @param maxConnections         open connections (HTTP/1.1) or HTTP/2 connections (h2c)
+     * @param pendingAcquireMaxCount requests allowed to queue for a connection; more fail fast
+     * @param pendingAcquireTimeout  longest wait in that queue
+     * @param maxIdleTime            close connections idle this long (keep below core's keep-alive timeout)
+     * @param maxLifeTime            close connections this old, so DNS/instance changes are picked up
+     * @param evictionInterval       background sweep for idle/expired connections (0 = only on acquire)
+     * @param leasing                which idle connection is handed out next
+     * @param h2c                    speak cleartext HTTP/2 to the upstream (HTTP/1.1 upgrade, falls back to 1.1)
+     */
+    public record Pool(
+            Integer maxConnections,
+            Integer pendingAcquireMaxCount,
+            Duration pendingAcquireTimeout,
+            Duration maxIdleTime,
+            Duration maxLifeTime,
+            Duration evictionInterval,
+            Leasing leasing,
+            Boolean h2c
+    ) {
+
+        static final Pool BUILT_IN = new Pool(200, 1000, Duration.ofSeconds(2), Duration.ofSeconds(30),
+                Duration.ofMinutes(5), Duration.ofSeconds(30), Leasing.LIFO, false);
+
+        Pool orElse(Pool fallback) {
+            return new Pool(
+                    maxConnections != null ? maxConnections : fallback.maxConnections,
+                    pendingAcquireMaxCount != null ? pendingAcquireMaxCount : fallback.pendingAcquireMaxCount,
+                    pendingAcquireTimeout != null ? pendingAcquireTimeout : fallback.pendingAcquireTimeout,
+                    maxIdleTime != null ? maxIdleTime : fallback.maxIdleTime,
+                    maxLifeTime != null ? maxLifeTime : fallback.maxLifeTime,
+                    evictionInterval != null ? evictionInterval : fallback.evictionInterval,
+                    leasing != null ? leasing : fallback.leasing,
+                    h2c != null ? h2c : fallback.h2c);
+        }
+    }
+
+    public UpstreamProperties {
+        enabled = enabled == null || enabled;
+        defaults = defaults == null ? Pool.BUILT_IN : defaults.orElse(Pool.BUILT_IN);
+        routes = routes == null ? Map.of() : Map.copyOf(routes);
+    }
+
+    public Pool poolFor(String routeId) {
+        Pool route = routes.get(routeId);
+        return route == null ? defaults : route.orElse(defaults);
+    }
+}
@@ -0,0 +1,124 @@
+package com.nexia.gateway.lb;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class InstanceStatsTest {
+
+    private static final long MILLIS = Duration.ofMillis(1).toNanos();
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    // nanoTime has an arbitrary origin: start below zero so nothing relies on it being positive
+    private static final long T0 = -5 * SECOND;
+
+    private static final LoadBalancingProperties PROPERTIES = new LoadBalancingProperties(
+            Map.of(), LoadBalancingProperties.Strategy.PEAK_EWMA, Duration.ofSeconds(10), Duration.ofSeconds(30),
+            new LoadBalancingProperties.Ejection(3, Duration.ofSeconds(30), Duration.ofMinutes(5), 50));
+
+    private static boolean respond(InstanceStats stats, long now, long latencyNanos, boolean failed) {
+        stats.begin();
+        return stats.end(now, latencyNanos, failed, () -> true);
+    }
+
+    private static boolean failTimes(InstanceStats stats, long now, int times) {
+        boolean ejected = false;
+        for (int i = 0; i < times; i++) {
+            ejected = respond(stats, now, MILLIS, true);
+        }
+        return ejected;
+    }
+
+    @Test
+    void peakEwmaJumpsToSpikesAndDecaysOverTheConfiguredPeriod() {
+        InstanceStats stats = new InstanceStats(PROPERTIES, T0, false);
+
+        respond(stats, T0, 100 * MILLIS, false);
+        assertThat(stats.ewmaMillis()).isEqualTo(100d);
+
+        // A faster response one decay period later keeps e^-1 of the old value
+        respond(stats, T0 + 10 * SECOND, 0, false);
+        assertThat(stats.ewmaMillis()).isCloseTo(100 * Math.exp(-1), within(1e-9));
+
+        // A new spike is taken as is
+        respond(stats, T0 + 11 * SECOND, 250 * MILLIS, false);
+        assertThat(stats.ewmaMillis()).isEqualTo(250d);
+
+        // Cancelled requests leave the average alone
+        respond(stats, T0 + 50 * SECOND, -1, false);
+        assertThat(stats.ewmaMillis()).isEqualTo(250d);
+    }
+
+    @Test
+    void costScalesLatencyByRequestsInFlight() {
+        InstanceStats stats = new InstanceStats(PROPERTIES, T0, false);
+        // Unmeasured instances count as 1 ms
+        assertThat(stats.cost(LoadBalancingProperties.Strategy.PEAK_EWMA)).isEqualTo(1d);
+
+        respond(stats, T0, 20 * MILLIS, false);
+        stats.begin();
+        stats.begin();
+
+        assertThat(stats.outstanding()).isEqualTo(2);
+        assertThat(stats.cost(LoadBalancingProperties.Strategy.PEAK_EWMA)).isEqualTo(60d);
+        assertThat(stats.cost(LoadBalancingProperties.Strategy.LEAST_OUTSTANDING)).isEqualTo(3d);
+    }
+
+    @Test
+    void consecutiveFailuresEjectForGrowingPeriods() {
+        InstanceStats stats = new InstanceStats(PROPERTIES, T0, false);
+        assertThat(stats.isEjected(T0)).isFalse();
+
+        // A success in between resets the streak
+        failTimes(stats, T0, 2);
+        respond(stats, T0, MILLIS, false);
+        assertThat(failTimes(stats, T0, 2)).isFalse();
+        assertThat(failTimes(stats, T0, 1)).isTrue();
+
+        assertThat(stats.isEjected(T0 + 30 * SECOND - 1)).isTrue();
+        assertThat(stats.isEjected(T0 + 30 * SECOND)).isFalse();
+
+        // Failing again right after re-admission doubles the ejection
+        long readmitted = T0 + 30 * SECOND;
+        assertThat(failTimes(stats, readmitted, 3)).isTrue();
+        assertThat(stats.isEjected(readmitted + 60 * SECOND - 1)).isTrue();
+        assertThat(stats.isEjected(readmitted + 60 * SECOND)).isFalse();
+    }
+
+    @Test
+    void ejectionIsSkippedWhenTheServiceCapIsReached() {
+        InstanceStats stats = new InstanceStats(PROPERTIES, T0, false);
+        for (int i = 0; i < 3; i++) {
+            stats.begin();
+            assertThat(stats.end(T0, MILLIS, true, () -> false)).isFalse();
+        }
+        assertThat(stats.isEjected(T0)).isFalse();
+    }
+
+    @Test
+    void slowStartRampsWeightFromTenPercent() {
+        InstanceStats warming = new InstanceStats(PROPERTIES, T0, true);
+        assertThat(warming.weight(T0)).isEqualTo(0.1);
+        assertThat(warming.weight(T0 + 2 * SECOND)).isEqualTo(0.1);
+        assertThat(warming.weight(T0 + 15 * SECOND)).isEqualTo(0.5);
+        assertThat(warming.weight(T0 + 30 * SECOND)).isEqualTo(1d);
+
+        // Instances known at startup take full load right away
+        assertThat(new InstanceStats(PROPERTIES, T0, false).weight(T0)).isEqualTo(1d);
+    }
+
+    @Test
+    void readmittedInstanceWarmsUpAgain() {
+        InstanceStats stats = new InstanceStats(PROPERTIES, T0, false);
+        failTimes(stats, T0, 3);
+
+        long readmitted = T0 + 30 * SECOND;
+        assertThat(stats.weight(readmitted)).isEqualTo(0.1);
+        assertThat(stats.weight(readmitted + 15 * SECOND)).isEqualTo(0.5);
+        assertThat(stats.weight(readmitted + 30 * SECOND)).isEqualTo(1d);
+    }
+}
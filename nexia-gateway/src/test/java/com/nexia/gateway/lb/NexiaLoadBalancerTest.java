@@ -0,0 +1,136 @@
+package com.nexia.gateway.lb;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Picks are random, so assertions are either certain (an instance that can never win) or
+ * several standard deviations away from the expected share.
+ */
+class NexiaLoadBalancerTest {
+
+    private static final String SERVICE = "nexia-core";
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private InstanceRegistry registry;
+    private final AtomicLong clock = new AtomicLong();
+
+    private NexiaLoadBalancer balancer(String... urls) {
+        LoadBalancingProperties properties = new LoadBalancingProperties(
+                Map.of(SERVICE, new LoadBalancingProperties.Service(List.of(urls), null, null)),
+                LoadBalancingProperties.Strategy.LEAST_OUTSTANDING, null, Duration.ofSeconds(30),
+                new LoadBalancingProperties.Ejection(2, Duration.ofSeconds(10), null, 50));
+        registry = new InstanceRegistry(properties, new SimpleMeterRegistry());
+        // The registry stamps instance stats with the real clock
+        clock.set(System.nanoTime());
+        ServiceInstance[] instances = registry.instances(SERVICE).toArray(ServiceInstance[]::new);
+        return new NexiaLoadBalancer(SERVICE, ServiceInstanceListSuppliers.toProvider(SERVICE, instances), registry,
+                clock::get);
+    }
+
+    @AfterEach
+    void stop() {
+        registry.destroy();
+    }
+
+    private static String pick(NexiaLoadBalancer balancer) {
+        return balancer.choose(new DefaultRequest<>()).block().getServer().getInstanceId();
+    }
+
+    private static Map<String, Integer> picks(NexiaLoadBalancer balancer, int times) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < times; i++) {
+            counts.merge(pick(balancer), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private void busy(String instanceId, int inFlight) {
+        for (int i = 0; i < inFlight; i++) {
+            registry.stats(SERVICE, instanceId).begin();
+        }
+    }
+
+    private void eject(String instanceId) {
+        InstanceStats stats = registry.stats(SERVICE, instanceId);
+        long now = clock.get();
+        boolean ejected = false;
+        for (int i = 0; i < 2; i++) {
+            stats.begin();
+            ejected = stats.end(now, 1_000_000, true, () -> registry.mayEject(SERVICE, now));
+        }
+        assertThat(ejected).isTrue();
+    }
+
+    @Test
+    void powerOfTwoChoicesNeverPicksTheBusiestAndFavoursTheIdlest() {
+        NexiaLoadBalancer balancer = balancer("http://a:8081", "http://b:8081", "http://c:8081");
+        busy("a:8081", 5);
+        busy("b:8081", 1);
+
+        Map<String, Integer> counts = picks(balancer, 600);
+
+        // Two distinct instances are compared, so the busiest always loses
+        assertThat(counts).doesNotContainKey("a:8081");
+        // c wins every pair it is in (2/3), b only the pair {a, b} (1/3)
+        assertThat(counts.get("c:8081")).isBetween(320, 480);
+    }
+
+    @Test
+    void ejectedInstanceIsSkippedUntilItsEjectionEnds() {
+        NexiaLoadBalancer balancer = balancer("http://a:8081", "http://b:8081");
+        busy("b:8081", 3);
+        assertThat(pick(balancer)).isEqualTo("a:8081");
+
+        eject("a:8081");
+        assertThat(picks(balancer, 50)).containsOnlyKeys("b:8081");
+
+        clock.addAndGet(10 * SECOND - 1);
+        assertThat(pick(balancer)).isEqualTo("b:8081");
+
+        // Re-admitted, and with only two instances slow start cannot keep it out of the comparison
+        clock.addAndGet(1);
+        assertThat(pick(balancer)).isEqualTo("a:8081");
+    }
+
+    @Test
+    void neverEjectsTheLastInstanceInRotation() {
+        NexiaLoadBalancer balancer = balancer("http://a:8081", "http://b:8081");
+        eject("a:8081");
+
+        InstanceStats b = registry.stats(SERVICE, "b:8081");
+        long now = clock.get();
+        for (int i = 0; i < 2; i++) {
+            b.begin();
+            assertThat(b.end(now, 1_000_000, true, () -> registry.mayEject(SERVICE, now))).isFalse();
+        }
+        assertThat(picks(balancer, 20)).containsOnlyKeys("b:8081");
+    }
+
+    @Test
+    void slowStartGivesAReadmittedInstanceAGrowingShare() {
+        NexiaLoadBalancer balancer = balancer("http://a:8081", "http://b:8081", "http://c:8081");
+        eject("c:8081");
+        clock.addAndGet(10 * SECOND);
+
+        // All idle, so the first sample wins; c is accepted at 10% weight: about 5% of picks
+        Map<String, Integer> warming = picks(balancer, 1000);
+        assertThat(warming.getOrDefault("c:8081", 0)).isBetween(1, 120);
+
+        clock.addAndGet(30 * SECOND);
+        Map<String, Integer> warm = picks(balancer, 1000);
+        assertThat(warm.get("c:8081")).isBetween(250, 420);
+    }
+}
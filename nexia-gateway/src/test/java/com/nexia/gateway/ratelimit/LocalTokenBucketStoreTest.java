@@ -0,0 +1,71 @@
+package com.nexia.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalTokenBucketStoreTest {
+
+    private static final long MILLIS = Duration.ofMillis(1).toNanos();
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private static final RateLimitProperties PROPERTIES =
+            new RateLimitProperties(true, null, null, null, 0, null, null, false);
+
+    // nanoTime has an arbitrary origin: start below zero so nothing relies on it being positive
+    private final AtomicLong clock = new AtomicLong(-5 * SECOND);
+    private final LocalTokenBucketStore store = new LocalTokenBucketStore(PROPERTIES, clock::get);
+
+    @Test
+    void fullBucketAllowsABurstThenRefillsAtTheReplenishRate() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit(2, 4, 1);
+
+        for (long remaining = 3; remaining >= 0; remaining--) {
+            assertThat(store.consume("k", limit)).isEqualTo(new TokenBucketStore.Decision(true, remaining));
+        }
+        assertThat(store.consume("k", limit)).isEqualTo(new TokenBucketStore.Decision(false, 0));
+
+        // Half a token is not enough, and the refused attempt keeps it
+        clock.addAndGet(250 * MILLIS);
+        assertThat(store.consume("k", limit).allowed()).isFalse();
+        clock.addAndGet(250 * MILLIS);
+        assertThat(store.consume("k", limit)).isEqualTo(new TokenBucketStore.Decision(true, 0));
+    }
+
+    @Test
+    void refillIsCappedAtBurstCapacity() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit(2, 4, 1);
+        store.consume("k", limit);
+
+        clock.addAndGet(60 * SECOND);
+
+        assertThat(store.consume("k", limit)).isEqualTo(new TokenBucketStore.Decision(true, 3));
+    }
+
+    @Test
+    void requestCostingSeveralTokensWaitsUntilAllAreThere() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit(1, 5, 3);
+
+        assertThat(store.consume("k", limit)).isEqualTo(new TokenBucketStore.Decision(true, 2));
+        // Refused requests take nothing
+        assertThat(store.consume("k", limit)).isEqualTo(new TokenBucketStore.Decision(false, 2));
+
+        clock.addAndGet(SECOND - 1);
+        assertThat(store.consume("k", limit).allowed()).isFalse();
+        clock.addAndGet(1);
+        assertThat(store.consume("k", limit)).isEqualTo(new TokenBucketStore.Decision(true, 0));
+    }
+
+    @Test
+    void keysHaveTheirOwnBuckets() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit(1, 1, 1);
+
+        assertThat(store.consume("route:alice", limit).allowed()).isTrue();
+        assertThat(store.consume("route:alice", limit).allowed()).isFalse();
+        assertThat(store.consume("route:bob", limit).allowed()).isTrue();
+        assertThat(store.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,125 @@
+package com.nexia.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NexiaRateLimiterTest {
+
+    private static final String ROUTE = "nexia-core-auth";
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+
+    private static RateLimitProperties properties(RateLimitProperties.Mode mode) {
+        return new RateLimitProperties(true, mode, null, Map.of(ROUTE, new RateLimitProperties.Limit(1, 2, 1)),
+                0, null, Duration.ofMillis(50), false);
+    }
+
+    private NexiaRateLimiter limiter(RateLimitProperties properties, TokenBucketStore redis) {
+        return new NexiaRateLimiter(properties, new LocalTokenBucketStore(properties, clock::get), redis,
+                meterRegistry);
+    }
+
+    private double requests(String result, String store) {
+        return meterRegistry.get("nexia.gateway.ratelimit.requests")
+                .tag("route", ROUTE).tag("result", result).tag("store", store)
+                .counter().count();
+    }
+
+    private static RateLimiter.Response check(NexiaRateLimiter limiter) {
+        return limiter.isAllowed(ROUTE, "alice").block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void headersWhenAllowed() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit(5, 10, 1);
+
+        Map<String, String> headers = NexiaRateLimiter.headers(limit, new TokenBucketStore.Decision(true, 7));
+
+        assertThat(headers)
+                .containsEntry("X-RateLimit-Remaining", "7")
+                .containsEntry("RateLimit-Limit", "10")
+                .containsEntry("RateLimit-Remaining", "7")
+                // 3 missing tokens at 5/s: full again within a second
+                .containsEntry("RateLimit-Reset", "1")
+                .doesNotContainKey(HttpHeaders.RETRY_AFTER);
+        assertThat(NexiaRateLimiter.headers(limit, new TokenBucketStore.Decision(true, 10)))
+                .containsEntry("RateLimit-Reset", "0");
+    }
+
+    @Test
+    void headersWhenDenied() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit(2, 10, 3);
+
+        // 3 tokens needed at 2/s; 10 to fill the bucket
+        assertThat(NexiaRateLimiter.headers(limit, new TokenBucketStore.Decision(false, 0)))
+                .containsEntry(HttpHeaders.RETRY_AFTER, "2")
+                .containsEntry("RateLimit-Reset", "5");
+        // 1 token short
+        assertThat(NexiaRateLimiter.headers(limit, new TokenBucketStore.Decision(false, 2)))
+                .containsEntry(HttpHeaders.RETRY_AFTER, "1")
+                .containsEntry("RateLimit-Reset", "4");
+        // Never tell a refused client to retry immediately, nor report negative remaining tokens
+        assertThat(NexiaRateLimiter.headers(limit, new TokenBucketStore.Decision(false, -1)))
+                .containsEntry("RateLimit-Remaining", "0")
+                .containsEntry(HttpHeaders.RETRY_AFTER, "2");
+        assertThat(NexiaRateLimiter.headers(limit, new TokenBucketStore.Decision(false, 3)))
+                .containsEntry(HttpHeaders.RETRY_AFTER, "1");
+    }
+
+    @Test
+    void deniesOnceTheBurstIsSpentAndRecoversAfterRetryAfter() {
+        NexiaRateLimiter limiter = limiter(properties(RateLimitProperties.Mode.LOCAL), null);
+
+        assertThat(check(limiter).isAllowed()).isTrue();
+        assertThat(check(limiter).isAllowed()).isTrue();
+
+        RateLimiter.Response denied = check(limiter);
+        assertThat(denied.isAllowed()).isFalse();
+        assertThat(denied.getHeaders()).containsEntry(HttpHeaders.RETRY_AFTER, "1");
+
+        clock.addAndGet(SECOND);
+        RateLimiter.Response recovered = check(limiter);
+        assertThat(recovered.isAllowed()).isTrue();
+        assertThat(recovered.getHeaders()).containsEntry("RateLimit-Remaining", "0");
+
+        assertThat(requests("allowed", "local")).isEqualTo(3d);
+        assertThat(requests("denied", "local")).isEqualTo(1d);
+    }
+
+    @Test
+    void redisTimeoutFallsBackToLocalBuckets() {
+        NexiaRateLimiter limiter = limiter(properties(RateLimitProperties.Mode.REDIS), (key, limit) -> Mono.never());
+
+        assertThat(check(limiter).isAllowed()).isTrue();
+        assertThat(check(limiter).isAllowed()).isTrue();
+        // The local buckets enforce the same limit meanwhile
+        assertThat(check(limiter).isAllowed()).isFalse();
+
+        assertThat(requests("allowed", "fallback")).isEqualTo(2d);
+        assertThat(requests("denied", "fallback")).isEqualTo(1d);
+    }
+
+    @Test
+    void redisErrorFallsBackAndHealthyRedisDecides() {
+        NexiaRateLimiter failing = limiter(properties(RateLimitProperties.Mode.REDIS),
+                (key, limit) -> Mono.error(new IllegalStateException("connection refused")));
+        assertThat(check(failing).isAllowed()).isTrue();
+        assertThat(requests("allowed", "fallback")).isEqualTo(1d);
+
+        NexiaRateLimiter healthy = limiter(properties(RateLimitProperties.Mode.REDIS),
+                (key, limit) -> Mono.just(new TokenBucketStore.Decision(false, 0)));
+        assertThat(check(healthy).isAllowed()).isFalse();
+        assertThat(requests("denied", "redis")).isEqualTo(1d);
+    }
+}
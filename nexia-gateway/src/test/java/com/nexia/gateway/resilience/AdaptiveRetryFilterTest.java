@@ -0,0 +1,74 @@
+package com.nexia.gateway.resilience;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Full gateway against a stub nexia-core: the retry budget (ratio 0.1, no floor, 60s window)
+ * is earned by successful requests and spent by retries of 503s. The context is closed with the
+ * test class, before the stub goes away, so no gateway threads outlive the run.
+ */
+@DirtiesContext
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "nexia.gateway.ratelimit.enabled=false",
+        "nexia.gateway.resilience.budget.ratio=0.1",
+        "nexia.gateway.resilience.budget.minPerSecond=0",
+        "nexia.gateway.resilience.budget.window=60s",
+        "nexia.gateway.resilience.retry.firstBackoff=1ms"
+})
+class AdaptiveRetryFilterTest {
+
+    private static final AtomicInteger hits = new AtomicInteger();
+    private static volatile int status = 200;
+
+    private static final DisposableServer upstream = HttpServer.create()
+            .port(0)
+            .handle((request, response) -> {
+                hits.incrementAndGet();
+                return response.status(status).send();
+            })
+            .bindNow();
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("nexia.gateway.lb.services.nexia-core.instances", () -> "http://localhost:" + upstream.port());
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.disposeNow();
+    }
+
+    @Autowired
+    WebTestClient client;
+
+    private int upstreamCallsFor(int expectedStatus) {
+        int before = hits.get();
+        client.get().uri("/api/v1/ping").exchange().expectStatus().isEqualTo(expectedStatus);
+        return hits.get() - before;
+    }
+
+    @Test
+    void retries503OnlyWhileBudgetLasts() {
+        // Ten requests earn exactly one extra attempt
+        for (int i = 0; i < 10; i++) {
+            assertThat(upstreamCallsFor(200)).isEqualTo(1);
+        }
+
+        status = 503;
+        assertThat(upstreamCallsFor(503)).as("retried once within budget").isEqualTo(2);
+        assertThat(upstreamCallsFor(503)).as("budget spent, no retry").isEqualTo(1);
+    }
+}
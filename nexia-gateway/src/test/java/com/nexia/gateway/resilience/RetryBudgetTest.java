@@ -0,0 +1,79 @@
+package com.nexia.gateway.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    // nanoTime has an arbitrary origin: start well below zero so slot indexes must not go negative
+    private final AtomicLong clock = new AtomicLong(-7 * SECOND - 123);
+
+    private RetryBudget budget(double ratio, int minPerSecond, int windowSeconds) {
+        return new RetryBudget(new ResilienceProperties.Budget(ratio, minPerSecond, Duration.ofSeconds(windowSeconds)),
+                clock::get);
+    }
+
+    private static int withdrawAll(RetryBudget budget) {
+        int granted = 0;
+        while (budget.tryWithdraw()) {
+            granted++;
+        }
+        return granted;
+    }
+
+    @Test
+    void floorAllowsRetriesWithoutTraffic() {
+        RetryBudget budget = budget(0.1, 2, 5);
+
+        assertThat(budget.remaining()).isEqualTo(10);
+        assertThat(withdrawAll(budget)).isEqualTo(10);
+        assertThat(budget.remaining()).isZero();
+    }
+
+    @Test
+    void spendingIsCappedAtRatioOfRequests() {
+        RetryBudget budget = budget(0.5, 0, 10);
+        for (int i = 0; i < 8; i++) {
+            budget.recordRequest();
+        }
+
+        assertThat(withdrawAll(budget)).isEqualTo(4);
+        assertThat(budget.tryWithdraw()).isFalse();
+
+        // Two more requests earn exactly one more attempt
+        budget.recordRequest();
+        budget.recordRequest();
+        assertThat(withdrawAll(budget)).isEqualTo(1);
+    }
+
+    @Test
+    void countsLeaveTheWindowAsSlotsRollOver() {
+        RetryBudget budget = budget(1.0, 0, 3);
+        for (int i = 0; i < 4; i++) {
+            budget.recordRequest();
+        }
+        clock.addAndGet(SECOND);
+        budget.recordRequest();
+        assertThat(withdrawAll(budget)).isEqualTo(5);
+
+        // The first second's 4 requests leave the window; the 5 attempts spent a second later still count
+        clock.addAndGet(2 * SECOND);
+        assertThat(budget.remaining()).isZero();
+
+        // Reusing that second's slot starts from zero instead of its stale counts
+        budget.recordRequest();
+        assertThat(budget.remaining()).isZero();
+
+        // Everything older than the window is gone
+        clock.addAndGet(3 * SECOND);
+        budget.recordRequest();
+        budget.recordRequest();
+        assertThat(budget.remaining()).isEqualTo(2);
+    }
+}
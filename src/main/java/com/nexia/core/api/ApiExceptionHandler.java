@@ -1,6 +1,9 @@
 package com.nexia.core.api;
 
+import com.nexia.core.api.error.BadRequestException;
 import com.nexia.core.api.error.ConflictException;
+import com.nexia.core.api.error.ServiceBusyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
@@ -48,4 +51,24 @@ public class ApiExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(pd);
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ProblemDetail> handleBadRequest(BadRequestException ex) {
+        ProblemDetail pd = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
+        pd.setTitle("Bad Request");
+        pd.setDetail(ex.getMessage());
+        pd.setType(URI.create("https://nexia.dev/problems/bad-request"));
+        return ResponseEntity.badRequest().body(pd);
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ProblemDetail> handleBusy(ServiceBusyException ex) {
+        ProblemDetail pd = ProblemDetail.forStatus(HttpStatus.SERVICE_UNAVAILABLE);
+        pd.setTitle("Service Busy");
+        pd.setDetail(ex.getMessage());
+        pd.setType(URI.create("https://nexia.dev/problems/service-busy"));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(pd);
+    }
+
 }
@@ -1,20 +1,29 @@
 package com.nexia.core.api;
 
 import com.nexia.core.api.dto.AuthResponse;
+import com.nexia.core.api.dto.LoginAndMeResponse;
 import com.nexia.core.api.dto.LoginRequest;
 import com.nexia.core.api.dto.RegisterRequest;
+import com.nexia.core.api.dto.UserResponse;
 import com.nexia.core.api.error.ConflictException;
+import com.nexia.core.api.error.ServiceBusyException;
 import com.nexia.core.domain.User;
 import com.nexia.core.messaging.UserEventPublisher;
+import com.nexia.core.messaging.UserInvalidator;
 import com.nexia.core.messaging.events.UserRegisteredEvent;
+import com.nexia.core.repo.UserJdbcRepository;
 import com.nexia.core.repo.UserRepository;
 import com.nexia.core.security.JwtService;
+import com.nexia.core.security.SecurityUser;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
@@ -25,21 +34,33 @@ import java.util.UUID;
 public class AuthController {
 
     private final UserRepository users;
+    private final UserJdbcRepository userRows;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserEventPublisher userEventPublisher;
+    private final UserInvalidator userInvalidator;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean replicaEnabled;
 
     public AuthController(UserRepository users,
+                          UserJdbcRepository userRows,
                           PasswordEncoder passwordEncoder,
                           AuthenticationManager authenticationManager,
                           JwtService jwtService,
-                          UserEventPublisher userEventPublisher) {
+                          UserEventPublisher userEventPublisher,
+                          UserInvalidator userInvalidator,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${nexia.datasource.replica.enabled:false}") boolean replicaEnabled) {
         this.users = users;
+        this.userRows = userRows;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
         this.userEventPublisher = userEventPublisher;
+        this.userInvalidator = userInvalidator;
+        this.transactionTemplate = transactionTemplate;
+        this.replicaEnabled = replicaEnabled;
     }
 
     @PostMapping("/register")
@@ -47,10 +68,6 @@ public class AuthController {
     public AuthResponse register(@Valid @RequestBody RegisterRequest request) {
         String email = request.email().trim();
 
-        if (users.existsByEmail(email)) {
-            throw new ConflictException("email already exists");
-        }
-
         User user = new User(
                 UUID.randomUUID(),
                 email,
@@ -60,33 +77,76 @@ public class AuthController {
                 "USER"
         );
 
-        User saved = users.save(user);
+        // BCrypt above runs outside the transaction; only the two inserts hold a connection
+        transactionTemplate.executeWithoutResult(status -> {
+            // One INSERT ... ON CONFLICT DO NOTHING: deterministic 409 even under concurrent registrations
+            if (!userRows.insertIfAbsent(user)) {
+                throw new ConflictException("email already exists");
+            }
 
-        // Phase 6: publish async event
-        userEventPublisher.publishUserRegistered(
-                UserRegisteredEvent.of(saved.getId(), saved.getEmail())
-        );
+            // Phase 6: async event, via the outbox row committed together with the user
+            userEventPublisher.publishUserRegistered(
+                    UserRegisteredEvent.of(user.getId(), user.getEmail())
+            );
+        });
+
+        // Read-your-writes: every core instance reads this user from the primary for a short while,
+        // so an immediate login or /me does not miss it on a lagging read replica
+        if (replicaEnabled) {
+            userInvalidator.invalidate(user.getId(), user.getEmail(), false);
+        }
 
-        String token = jwtService.generate(saved);
+        String token = jwtService.generate(user);
         return new AuthResponse(token, "Bearer", jwtService.ttlSeconds());
     }
 
     @PostMapping("/login")
     public AuthResponse login(@Valid @RequestBody LoginRequest request) {
+        User user = authenticate(request);
+
+        String token = jwtService.generate(user);
+        return new AuthResponse(token, "Bearer", jwtService.ttlSeconds());
+    }
+
+    /**
+     * Login plus profile in one round trip (backs the BFF's /bff/auth/login-and-me).
+     */
+    @PostMapping("/login-and-me")
+    public LoginAndMeResponse loginAndMe(@Valid @RequestBody LoginRequest request) {
+        User user = authenticate(request);
+
+        String token = jwtService.generate(user);
+        return new LoginAndMeResponse(token, "Bearer", jwtService.ttlSeconds(),
+                UserResponse.of(user));
+    }
+
+    /**
+     * Returns the user row DbUserDetailsService already loaded to check the password
+     * (or the one saved by a hash upgrade), so no second lookup by email is needed.
+     */
+    private User authenticate(LoginRequest request) {
         String email = request.email().trim();
 
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(
+            authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(email, request.password())
             );
         } catch (Exception ex) {
+            // hashing pool saturated: surface as 503, not as a credentials failure, also when
+            // Spring Security wrapped it (InternalAuthenticationServiceException)
+            for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+                if (cause instanceof ServiceBusyException busy) {
+                    throw busy;
+                }
+            }
             throw new BadCredentialsException("invalid credentials");
         }
 
-        User user = users.findByEmail(email)
+        if (authentication.getPrincipal() instanceof SecurityUser principal) {
+            return principal.domainUser();
+        }
+        return users.findByEmail(email)
                 .orElseThrow(() -> new BadCredentialsException("invalid credentials"));
-
-        String token = jwtService.generate(user);
-        return new AuthResponse(token, "Bearer", jwtService.ttlSeconds());
     }
 }
@@ -0,0 +1,128 @@
+package com.nexia.core.api;
+
+import com.nexia.core.api.dto.BulkCreateResponse;
+import com.nexia.core.api.dto.CreateUserRequest;
+import com.nexia.core.domain.User;
+import com.nexia.core.repo.UserJdbcRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Creates users in chunks: one duplicate check query and one JDBC batch insert per chunk,
+ * collecting per-row errors instead of failing the whole request.
+ * Works on an iterator so NDJSON uploads are never fully held in memory.
+ */
+@Component
+public class BulkUserImporter {
+
+    private final UserJdbcRepository userRows;
+    private final Validator validator;
+    private final int batchSize;
+
+    public BulkUserImporter(UserJdbcRepository userRows,
+                            Validator validator,
+                            @Value("${nexia.users.bulk.batchSize:500}") int batchSize) {
+        this.userRows = userRows;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    public BulkCreateResponse importAll(Iterator<CreateUserRequest> requests) {
+        List<BulkCreateResponse.RowError> errors = new ArrayList<>();
+        List<CreateUserRequest> chunk = new ArrayList<>(batchSize);
+        int received = 0;
+        int created = 0;
+
+        while (requests.hasNext()) {
+            chunk.add(requests.next());
+            received++;
+            if (chunk.size() == batchSize) {
+                created += importChunk(chunk, received - chunk.size(), errors);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += importChunk(chunk, received - chunk.size(), errors);
+        }
+
+        errors.sort(Comparator.comparingInt(BulkCreateResponse.RowError::index));
+        return new BulkCreateResponse(received, created, errors);
+    }
+
+    private int importChunk(List<CreateUserRequest> chunk, int offset, List<BulkCreateResponse.RowError> errors) {
+        List<User> candidates = new ArrayList<>(chunk.size());
+        List<Integer> candidateIndexes = new ArrayList<>(chunk.size());
+        Set<String> seenInChunk = new HashSet<>();
+
+        List<String> emails = chunk.stream()
+                .map(r -> r == null || r.email() == null ? null : r.email().trim())
+                .toList();
+        Set<String> existing = userRows.findExistingEmails(
+                emails.stream().filter(e -> e != null && !e.isEmpty()).collect(Collectors.toSet()));
+
+        Instant now = Instant.now();
+        for (int i = 0; i < chunk.size(); i++) {
+            CreateUserRequest req = chunk.get(i);
+            int index = offset + i;
+
+            String invalid = validate(req);
+            if (invalid != null) {
+                errors.add(new BulkCreateResponse.RowError(index, emails.get(i), invalid));
+                continue;
+            }
+
+            String email = emails.get(i);
+            if (existing.contains(email) || !seenInChunk.add(email)) {
+                errors.add(new BulkCreateResponse.RowError(index, email, "email already exists"));
+                continue;
+            }
+
+            // Same defaults as UserController.create: no password, role "USER"
+            candidates.add(new User(UUID.randomUUID(), email, req.fullName().trim(), now));
+            candidateIndexes.add(index);
+        }
+
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        boolean[] inserted = userRows.insertIgnoringConflicts(candidates);
+        int created = 0;
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i]) {
+                created++;
+            } else {
+                // lost a race with a concurrent insert of the same email
+                errors.add(new BulkCreateResponse.RowError(
+                        candidateIndexes.get(i), candidates.get(i).getEmail(), "email already exists"));
+            }
+        }
+        return created;
+    }
+
+    private String validate(CreateUserRequest req) {
+        if (req == null) {
+            return "row is empty";
+        }
+        Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(req);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
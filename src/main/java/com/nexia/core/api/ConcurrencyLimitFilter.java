@@ -0,0 +1,95 @@
+package com.nexia.core.api;
+
+import com.nexia.core.api.error.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps concurrent /api requests when Tomcat runs on virtual threads.
+ * <p>
+ * With platform threads the Tomcat pool bounds concurrency; with virtual threads every accepted
+ * connection gets its own thread, and thousands of them would just queue on the Hikari pool until
+ * its connection timeout. This admits a multiple of the pool size and answers the rest with a
+ * quick 503 + Retry-After (same problem response as {@link ServiceBusyException}).
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(@Value("${nexia.web.concurrency.maxRequests:0}") int maxRequests,
+                                  @Value("${nexia.web.concurrency.acquireTimeoutMillis:500}") long acquireTimeoutMillis,
+                                  @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                  @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+                                  MeterRegistry meterRegistry) {
+        // 0 = a few requests per pooled connection: enough to overlap non-JDBC work
+        // (JSON, AMQP, BCrypt hand-off) without a deep queue in front of the pool
+        int limit = maxRequests > 0 ? maxRequests : poolSize * 4;
+        this.permits = new Semaphore(limit);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.exceptionResolver = exceptionResolver;
+
+        this.rejected = Counter.builder("nexia.http.concurrency.rejected")
+                .description("Requests turned away by the virtual-thread concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("nexia.http.concurrency.inflight", permits, p -> limit - p.availablePermits())
+                .description("Requests currently admitted by the concurrency limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            rejected.increment();
+            // Renders through ApiExceptionHandler, like a controller exception would
+            exceptionResolver.resolveException(request, response, null,
+                    new ServiceBusyException("Too many concurrent requests, retry shortly"));
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
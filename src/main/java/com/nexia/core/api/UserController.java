@@ -1,10 +1,20 @@
 package com.nexia.core.api;
 
+import com.nexia.core.api.dto.BulkCreateResponse;
 import com.nexia.core.api.dto.CreateUserRequest;
+import com.nexia.core.api.dto.CursorPage;
 import com.nexia.core.api.dto.UserResponse;
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexia.core.api.error.BadRequestException;
 import com.nexia.core.api.error.ConflictException;
 import com.nexia.core.api.error.NotFoundException;
 import com.nexia.core.domain.User;
+import com.nexia.core.messaging.UserInvalidator;
+import com.nexia.core.repo.ReadOnlyRoutingDataSource;
+import com.nexia.core.repo.UserCache;
+import com.nexia.core.repo.UserJdbcRepository;
 import com.nexia.core.repo.UserRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,19 +22,35 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -32,9 +58,30 @@ import java.util.UUID;
 public class UserController {
 
     private final UserRepository users;
+    private final UserJdbcRepository userRows;
+    private final UserCache userCache;
+    private final UserInvalidator userInvalidator;
+    private final BulkUserImporter bulkUserImporter;
+    private final ObjectMapper objectMapper;
+    private final CacheControl singleUserCacheControl;
 
-    public UserController(UserRepository users) {
+    public UserController(UserRepository users,
+                          UserJdbcRepository userRows,
+                          UserCache userCache,
+                          UserInvalidator userInvalidator,
+                          BulkUserImporter bulkUserImporter,
+                          ObjectMapper objectMapper,
+                          @Value("${nexia.users.http.maxAgeSeconds:5}") long maxAgeSeconds) {
         this.users = users;
+        this.userRows = userRows;
+        this.userCache = userCache;
+        this.userInvalidator = userInvalidator;
+        this.bulkUserImporter = bulkUserImporter;
+        this.objectMapper = objectMapper;
+        // private: responses are per caller; 0 = always revalidate (ETag still saves the body)
+        this.singleUserCacheControl = maxAgeSeconds > 0
+                ? CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePrivate()
+                : CacheControl.noCache().cachePrivate();
     }
 
     @Operation(summary = "Create user")
@@ -51,13 +98,50 @@ public class UserController {
     @ResponseStatus(HttpStatus.CREATED)
     @PreAuthorize("hasRole('ADMIN')")
     public UserResponse create(@Valid @RequestBody CreateUserRequest req) {
-        if (users.existsByEmail(req.email().trim())) {
-            throw new ConflictException("email already exists");
-        }
         // Uses the 4-arg constructor -> passwordHash null, role "USER"
         User u = new User(UUID.randomUUID(), req.email().trim(), req.fullName().trim(), Instant.now());
-        User saved = users.save(u);
-        return new UserResponse(saved.getId(), saved.getEmail(), saved.getFullName(), saved.getCreatedAt());
+        if (!userRows.insertIfAbsent(u)) {
+            throw new ConflictException("email already exists");
+        }
+        return UserResponse.of(u);
+    }
+
+    @Operation(summary = "Create users in bulk",
+            description = "Accepts a JSON array of users. Rows that fail validation or whose email already exists "
+                    + "are reported in errors; all other rows are created.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Processed (see errors for rejected rows)")
+    })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public BulkCreateResponse bulkCreate(@RequestBody List<CreateUserRequest> requests) {
+        return bulkUserImporter.importAll(requests.iterator());
+    }
+
+    @Operation(summary = "Create users in bulk (NDJSON stream)",
+            description = "Same as the JSON variant, but reads one user per line and never holds the whole upload in memory. "
+                    + "Rows are committed per batch, so batches before a malformed line stay created.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Processed (see errors for rejected rows)"),
+            @ApiResponse(responseCode = "400", description = "Malformed NDJSON",
+                    content = @Content(mediaType = "application/problem+json",
+                            schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public BulkCreateResponse bulkCreateNdjson(HttpServletRequest request) throws IOException {
+        try (MappingIterator<CreateUserRequest> rows =
+                     objectMapper.readerFor(CreateUserRequest.class).readValues(request.getInputStream())) {
+            return bulkUserImporter.importAll(rows);
+        } catch (JacksonException ex) {
+            throw new BadRequestException("malformed NDJSON: " + ex.getOriginalMessage());
+        } catch (RuntimeException ex) {
+            // MappingIterator wraps mid-stream parse errors in RuntimeJsonMappingException
+            if (ex.getCause() instanceof JacksonException jackson) {
+                throw new BadRequestException("malformed NDJSON: " + jackson.getOriginalMessage());
+            }
+            throw ex;
+        }
     }
 
     @Operation(summary = "List users (paginated)")
@@ -73,27 +157,174 @@ public class UserController {
         // Ignore client-provided sort completely; always sort by createdAt
         Pageable sanitized = PageRequest.of(page, size, Sort.by("createdAt").ascending());
 
-        return users.findAll(sanitized)
-                .map(u -> new UserResponse(u.getId(), u.getEmail(), u.getFullName(), u.getCreatedAt()));
+        return users.findAllResponses(sanitized);
+    }
+
+    @Operation(summary = "List users (keyset / cursor)",
+            description = "Seeks on (createdAt, id) instead of OFFSET and skips the count query. "
+                    + "Pass the returned nextCursor to get the following page; it is null on the last page.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor",
+                    content = @Content(mediaType = "application/problem+json",
+                            schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPage<UserResponse> listByCursor(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "20") int size) {
+        int limit = Math.min(Math.max(size, 1), 100);
+
+        // Fetch one extra row to know whether another page exists
+        List<UserResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = userRows.findFirstPage(limit + 1);
+        } else {
+            UserCursor after = UserCursor.decode(cursor);
+            rows = userRows.findPageAfter(after.createdAt(), after.id(), limit + 1);
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<UserResponse> page = hasNext ? rows.subList(0, limit) : rows;
+
+        String next = null;
+        if (hasNext) {
+            UserResponse last = page.get(page.size() - 1);
+            next = new UserCursor(last.createdAt(), last.id()).encode();
+        }
+
+        return new CursorPage<>(page, next);
+    }
+
+    @Operation(summary = "Search users (keyset)",
+            description = "Case-insensitive search on email and full name. mode=prefix matches the start of either "
+                    + "field, ordered by (createdAt, id). mode=fuzzy matches "
+                    + "similar spellings (trigram similarity, at least 3 characters), best match first. "
+                    + "Pass the returned nextCursor to get the following page; it is null on the last page.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Invalid query, mode or cursor",
+                    content = @Content(mediaType = "application/problem+json",
+                            schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPage<UserResponse> search(@RequestParam String q,
+                                           @RequestParam(defaultValue = "prefix") String mode,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "20") int size) {
+        String term = q.trim().toLowerCase(Locale.ROOT);
+        if (term.isEmpty() || term.length() > 100) {
+            throw new BadRequestException("q must be 1 to 100 characters");
+        }
+        int limit = Math.min(Math.max(size, 1), 100);
+        boolean first = cursor == null || cursor.isBlank();
+
+        // Fetch one extra row to know whether another page exists
+        switch (mode.toLowerCase(Locale.ROOT)) {
+            case "prefix" -> {
+                UserCursor after = first ? null : UserCursor.decode(cursor);
+                List<UserResponse> rows = first
+                        ? userRows.searchByPrefix(term, null, null, limit + 1)
+                        : userRows.searchByPrefix(term, after.createdAt(), after.id(), limit + 1);
+
+                boolean hasNext = rows.size() > limit;
+                List<UserResponse> page = hasNext ? rows.subList(0, limit) : rows;
+                UserResponse last = hasNext ? page.get(page.size() - 1) : null;
+                return new CursorPage<>(page, last == null ? null : new UserCursor(last.createdAt(), last.id()).encode());
+            }
+            case "fuzzy" -> {
+                if (term.length() < 3) {
+                    throw new BadRequestException("fuzzy search needs at least 3 characters");
+                }
+                UserScoreCursor after = first ? null : UserScoreCursor.decode(cursor);
+                List<UserJdbcRepository.ScoredUser> rows = first
+                        ? userRows.searchFuzzy(term, 0, null, limit + 1)
+                        : userRows.searchFuzzy(term, after.score(), after.id(), limit + 1);
+
+                boolean hasNext = rows.size() > limit;
+                List<UserJdbcRepository.ScoredUser> page = hasNext ? rows.subList(0, limit) : rows;
+                UserJdbcRepository.ScoredUser last = hasNext ? page.get(page.size() - 1) : null;
+                return new CursorPage<>(
+                        page.stream().map(UserJdbcRepository.ScoredUser::user).toList(),
+                        last == null ? null : new UserScoreCursor(last.score(), last.user().id()).encode());
+            }
+            default -> throw new BadRequestException("mode must be prefix or fuzzy");
+        }
+    }
+
+    @Operation(summary = "Export all users (streaming)",
+            description = "Streams every user as NDJSON (default) or CSV straight from a database cursor; "
+                    + "memory use does not grow with the table size.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Unsupported format",
+                    content = @Content(mediaType = "application/problem+json",
+                            schema = @Schema(implementation = ProblemDetail.class)))
+    })
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void export(@RequestParam(defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        boolean csv = switch (format.toLowerCase(Locale.ROOT)) {
+            case "ndjson" -> false;
+            case "csv" -> true;
+            default -> throw new BadRequestException("format must be ndjson or csv");
+        };
+
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"users." + (csv ? "csv" : "ndjson") + "\"");
+
+        try (OutputStream out = new BufferedOutputStream(response.getOutputStream(), 64 * 1024)) {
+            if (csv) {
+                out.write("id,email,fullName,createdAt\n".getBytes(StandardCharsets.UTF_8));
+            }
+            userRows.streamAll(u -> {
+                try {
+                    if (csv) {
+                        String line = u.id() + "," + csvField(u.email()) + "," + csvField(u.fullName())
+                                + "," + u.createdAt() + "\n";
+                        out.write(line.getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        out.write(objectMapper.writeValueAsBytes(u));
+                        out.write('\n');
+                    }
+                } catch (IOException ex) {
+                    // client went away: abort the cursor instead of draining the table
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
 
     @Operation(summary = "Get user by id")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match)"),
             @ApiResponse(responseCode = "404", description = "User not found",
                     content = @Content(mediaType = "application/problem+json",
                             schema = @Schema(implementation = ProblemDetail.class)))
     })
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public UserResponse getById(@PathVariable UUID id) {
-        User u = users.findById(id).orElseThrow(() -> new NotFoundException("user not found"));
-        return new UserResponse(u.getId(), u.getEmail(), u.getFullName(), u.getCreatedAt());
+    public ResponseEntity<UserResponse> getById(@PathVariable UUID id) {
+        User u = userCache.findById(id).orElseThrow(() -> new NotFoundException("user not found"));
+        return cacheable(UserResponse.of(u));
     }
 
     @Operation(summary = "Get current user (me)")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "304", description = "Not modified (If-None-Match)"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "404", description = "User not found",
                     content = @Content(mediaType = "application/problem+json",
@@ -101,11 +332,11 @@ public class UserController {
     })
     @GetMapping("/me")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public UserResponse me(Authentication authentication) {
+    public ResponseEntity<UserResponse> me(Authentication authentication) {
         // DbUserDetailsService should use email as username; authentication.getName() returns that
         String email = authentication.getName();
-        User u = users.findByEmail(email.trim()).orElseThrow(() -> new NotFoundException("user not found"));
-        return new UserResponse(u.getId(), u.getEmail(), u.getFullName(), u.getCreatedAt());
+        User u = userCache.findByEmail(email.trim()).orElseThrow(() -> new NotFoundException("user not found"));
+        return cacheable(UserResponse.of(u));
     }
 
     @Operation(summary = "Get user by email")
@@ -118,8 +349,8 @@ public class UserController {
     @GetMapping("/by-email")
     @PreAuthorize("hasRole('ADMIN')")
     public UserResponse getByEmail(@RequestParam String email) {
-        User u = users.findByEmail(email.trim()).orElseThrow(() -> new NotFoundException("user not found"));
-        return new UserResponse(u.getId(), u.getEmail(), u.getFullName(), u.getCreatedAt());
+        User u = userCache.findByEmail(email.trim()).orElseThrow(() -> new NotFoundException("user not found"));
+        return UserResponse.of(u);
     }
 
     @Operation(summary = "Delete user")
@@ -133,9 +364,25 @@ public class UserController {
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @PreAuthorize("hasRole('ADMIN')")
     public void delete(@PathVariable UUID id) {
-        if (!users.existsById(id)) {
+        // Checked on the primary: a user created a moment ago may not be on the replica yet
+        if (!ReadOnlyRoutingDataSource.onPrimary(() -> users.existsById(id))) {
             throw new NotFoundException("user not found");
         }
         users.deleteById(id);
+        // Drop cached copies on every replica; claims-only auth never hits the DB,
+        // so outstanding tokens must be revoked explicitly as well
+        userInvalidator.invalidate(id, null, true);
+    }
+
+    /**
+     * ETag + Cache-Control for single-user reads. Spring answers a matching If-None-Match
+     * with 304 by itself; the gateway uses both headers for its short-lived response cache.
+     */
+    private ResponseEntity<UserResponse> cacheable(UserResponse body) {
+        String version = body.id() + "|" + body.email() + "|" + body.fullName() + "|" + body.createdAt();
+        return ResponseEntity.ok()
+                .eTag(DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)))
+                .cacheControl(singleUserCacheControl)
+                .body(body);
     }
 }
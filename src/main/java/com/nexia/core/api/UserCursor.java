@@ -0,0 +1,30 @@
+package com.nexia.core.api;
+
+import com.nexia.core.api.error.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position (created_at, id) of the last row a client has seen,
+ * serialized as an opaque URL-safe token.
+ */
+record UserCursor(Instant createdAt, UUID id) {
+
+    String encode() {
+        String raw = createdAt.toString() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static UserCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new UserCursor(Instant.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.nexia.core.api;
+
+import com.nexia.core.api.error.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position (score, id) of the last fuzzy-search hit a client has seen,
+ * serialized as an opaque URL-safe token.
+ */
+record UserScoreCursor(float score, UUID id) {
+
+    String encode() {
+        // Float.toString round-trips exactly, so the next page resumes at the same score
+        String raw = Float.toString(score) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static UserScoreCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new UserScoreCursor(Float.parseFloat(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.nexia.core.api.dto;
+
+import java.util.List;
+
+public record BulkCreateResponse(
+        int received,
+        int created,
+        List<RowError> errors
+) {
+    /**
+     * A row that was not created. {@code index} is the zero-based position in the request.
+     */
+    public record RowError(
+            int index,
+            String email,
+            String reason
+    ) {}
+}
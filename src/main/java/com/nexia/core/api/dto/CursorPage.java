@@ -0,0 +1,11 @@
+package com.nexia.core.api.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page. {@code nextCursor} is opaque to clients and is null on the last page.
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor
+) {}
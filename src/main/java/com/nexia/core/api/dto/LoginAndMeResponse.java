@@ -0,0 +1,12 @@
+package com.nexia.core.api.dto;
+
+/**
+ * Login result plus the caller's profile, so clients need no follow-up {@code GET /api/v1/users/me}.
+ */
+public record LoginAndMeResponse(
+        String accessToken,
+        String tokenType,
+        long expiresInSeconds,
+        UserResponse me
+) {
+}
@@ -1,5 +1,7 @@
 package com.nexia.core.api.dto;
 
+import com.nexia.core.domain.User;
+
 import java.time.Instant;
 import java.util.UUID;
 
@@ -8,4 +10,9 @@ public record UserResponse(
         String email,
         String fullName,
         Instant createdAt
-) {}
+) {
+
+    public static UserResponse of(User user) {
+        return new UserResponse(user.getId(), user.getEmail(), user.getFullName(), user.getCreatedAt());
+    }
+}
@@ -0,0 +1,7 @@
+package com.nexia.core.api.error;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.nexia.core.api.error;
+
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
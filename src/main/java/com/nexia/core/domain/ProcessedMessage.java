@@ -3,19 +3,32 @@ package com.nexia.core.domain;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
 import jakarta.persistence.Table;
 
+import java.io.Serializable;
 import java.time.Instant;
+import java.util.Objects;
 import java.util.UUID;
 
+/**
+ * A consumed event id. The key includes {@code occurredAt}, the partition key of
+ * {@code processed_messages} (V7), which comes from the event so redeliveries map to the same row.
+ * Rows are written by {@link com.nexia.core.repo.ProcessedMessageJdbcRepository}.
+ */
 @Entity
 @Table(name = "processed_messages")
+@IdClass(ProcessedMessage.Key.class)
 public class ProcessedMessage {
 
     @Id
     @Column(name = "event_id", nullable = false)
     private UUID eventId;
 
+    @Id
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
     @Column(name = "processed_at", nullable = false)
     private Instant processedAt;
 
@@ -23,20 +36,55 @@ public class ProcessedMessage {
         // for JPA
     }
 
-    public ProcessedMessage(UUID eventId, Instant processedAt) {
+    public ProcessedMessage(UUID eventId, Instant occurredAt, Instant processedAt) {
         this.eventId = eventId;
+        this.occurredAt = occurredAt;
         this.processedAt = processedAt;
     }
 
-    public static ProcessedMessage now(UUID eventId) {
-        return new ProcessedMessage(eventId, Instant.now());
+    public static ProcessedMessage now(UUID eventId, Instant occurredAt) {
+        return new ProcessedMessage(eventId, occurredAt, Instant.now());
     }
 
     public UUID getEventId() {
         return eventId;
     }
 
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
     public Instant getProcessedAt() {
         return processedAt;
     }
+
+    /**
+     * Composite primary key, {@code (event_id, occurred_at)}.
+     */
+    public static class Key implements Serializable {
+
+        private UUID eventId;
+        private Instant occurredAt;
+
+        protected Key() {
+            // for JPA
+        }
+
+        public Key(UUID eventId, Instant occurredAt) {
+            this.eventId = eventId;
+            this.occurredAt = occurredAt;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                    && Objects.equals(eventId, other.eventId)
+                    && Objects.equals(occurredAt, other.occurredAt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(eventId, occurredAt);
+        }
+    }
 }
@@ -31,6 +31,10 @@ public class User {
     @Column(nullable = false)
     private String role;
 
+    // Bumped by the database on role change (V9); tokens issued under an older version are rejected
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
     protected User() {
         // Required by JPA
     }
@@ -44,12 +48,26 @@ public class User {
                 Instant createdAt,
                 String passwordHash,
                 String role) {
+        this(id, email, fullName, createdAt, passwordHash, role, 0);
+    }
+
+    /**
+     * Full constructor including the token version, for copies of loaded users.
+     */
+    public User(UUID id,
+                String email,
+                String fullName,
+                Instant createdAt,
+                String passwordHash,
+                String role,
+                int tokenVersion) {
         this.id = id;
         this.email = email;
         this.fullName = fullName;
         this.createdAt = createdAt;
         this.passwordHash = passwordHash;
         this.role = role;
+        this.tokenVersion = tokenVersion;
     }
 
     /**
@@ -86,4 +104,12 @@ public class User {
     public String getRole() {
         return role;
     }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void changePasswordHash(String passwordHash) {
+        this.passwordHash = passwordHash;
+    }
 }
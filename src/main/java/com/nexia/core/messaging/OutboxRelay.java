@@ -0,0 +1,130 @@
+package com.nexia.core.messaging;
+
+import com.nexia.core.repo.OutboxRepository;
+import com.nexia.core.repo.OutboxRepository.PendingEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code outbox_events} to RabbitMQ in batches.
+ * <p>
+ * Each batch is locked, sent on one channel, confirmed by the broker as a whole and only then
+ * deleted, all in one transaction. A nack, a confirm timeout or a broker outage rolls the batch
+ * back so it is retried on the next poll: delivery is at-least-once, and consumers dedup by
+ * eventId.
+ */
+@Component
+@ConditionalOnProperty(name = "nexia.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxRepository outbox;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long confirmTimeoutMillis;
+
+    private final Counter published;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxRepository outbox,
+                       RabbitTemplate rabbitTemplate,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${nexia.outbox.relay.batchSize:100}") int batchSize,
+                       @Value("${nexia.outbox.relay.confirmTimeoutMillis:5000}") long confirmTimeoutMillis) {
+        this.outbox = outbox;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMillis = confirmTimeoutMillis;
+
+        this.published = Counter.builder("nexia.outbox.published")
+                .description("Outbox events published and confirmed by the broker")
+                .register(meterRegistry);
+        Gauge.builder("nexia.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events waiting to be published (lag)")
+                .register(meterRegistry);
+        TimeGauge.builder("nexia.outbox.oldest.age", oldestAgeMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox event")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${nexia.outbox.relay.pollMillis:500}")
+    public void drain() {
+        try {
+            Integer sent;
+            do {
+                sent = transactionTemplate.execute(status -> relayBatch());
+            } while (sent != null && sent == batchSize);
+        } catch (AmqpException ex) {
+            log.warn("Outbox relay batch failed, will retry: {}", ex.getMessage());
+        } finally {
+            refreshBacklog();
+        }
+    }
+
+    private int relayBatch() {
+        List<PendingEvent> batch = outbox.lockOldest(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // One channel for the whole batch; requires spring.rabbitmq.publisher-confirm-type=simple
+        rabbitTemplate.invoke(ops -> {
+            for (PendingEvent event : batch) {
+                ops.send(event.exchange(), event.routingKey(), toMessage(event));
+            }
+            ops.waitForConfirmsOrDie(confirmTimeoutMillis);
+            return null;
+        });
+
+        outbox.delete(batch.stream().map(PendingEvent::id).toList());
+        published.increment(batch.size());
+        return batch.size();
+    }
+
+    private void refreshBacklog() {
+        try {
+            OutboxRepository.Backlog backlog = outbox.backlog();
+            pending.set(backlog.pending());
+            oldestAgeMillis.set(backlog.oldestCreatedAt() == null
+                    ? 0L
+                    : Math.max(0L, Duration.between(backlog.oldestCreatedAt(), Instant.now()).toMillis()));
+        } catch (RuntimeException ex) {
+            log.debug("Could not read outbox backlog: {}", ex.getMessage());
+        }
+    }
+
+    private static Message toMessage(PendingEvent event) {
+        MessageProperties props = new MessageProperties();
+        props.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        props.setContentEncoding(StandardCharsets.UTF_8.name());
+        props.setMessageId(event.id().toString());
+        props.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.eventType());
+        return new Message(event.payload().getBytes(StandardCharsets.UTF_8), props);
+    }
+}
@@ -0,0 +1,118 @@
+package com.nexia.core.messaging;
+
+import com.nexia.core.repo.ProcessedMessagePartitionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the daily partitions of {@code processed_messages} in step with the dedup window:
+ * creates the next few days ahead of time and drops whole partitions once they fall
+ * entirely outside the window (a metadata operation, no DELETE/VACUUM churn).
+ * Rows that ended up in the default partition are moved when their day is created, purged once
+ * past the window, and reported through {@code nexia.messaging.dedup.default.rows}.
+ * Safe to run on every replica; DDL races are logged and retried on the next run.
+ */
+@Component
+@ConditionalOnProperty(name = "nexia.messaging.dedup.retention.enabled", havingValue = "true", matchIfMissing = true)
+public class ProcessedMessageRetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessedMessageRetentionJob.class);
+
+    private final ProcessedMessagePartitionRepository partitions;
+    private final Duration window;
+    private final int daysAhead;
+    private final AtomicLong defaultPartitionRows = new AtomicLong();
+
+    public ProcessedMessageRetentionJob(ProcessedMessagePartitionRepository partitions,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${nexia.messaging.dedup.window:7d}") Duration window,
+                                        @Value("${nexia.messaging.dedup.retention.daysAhead:2}") int daysAhead) {
+        this.partitions = partitions;
+        this.window = window;
+        this.daysAhead = daysAhead;
+
+        Gauge.builder("nexia.messaging.dedup.default.rows", defaultPartitionRows, AtomicLong::get)
+                .description("processed_messages rows outside every day partition (should stay 0)")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${nexia.messaging.dedup.retention.cron:0 15 * * * *}", zone = "UTC")
+    public void maintain() {
+        try {
+            Instant now = Instant.now();
+            Instant cutoff = now.minus(window);
+            List<LocalDate> existing = partitions.partitionDays();
+
+            for (LocalDate day : missingDays(LocalDate.ofInstant(now, ZoneOffset.UTC), daysAhead, existing)) {
+                int moved = partitions.create(day);
+                log.info("Created processed_messages partition for {}", day);
+                if (moved > 0) {
+                    log.warn("Moved {} processed_messages rows for {} out of the default partition", moved, day);
+                }
+            }
+
+            for (LocalDate day : expiredDays(existing, cutoff)) {
+                partitions.drop(day);
+                log.info("Dropped expired processed_messages partition for {}", day);
+            }
+
+            int purged = partitions.purgeDefaultPartition(cutoff);
+            if (purged > 0) {
+                log.info("Purged {} expired rows from the processed_messages default partition", purged);
+            }
+            long stranded = partitions.defaultPartitionRows();
+            defaultPartitionRows.set(stranded);
+            if (stranded > 0) {
+                // Events timestamped beyond daysAhead: clock skew on a producer, or daysAhead too small
+                log.warn("{} processed_messages rows are in the default partition; they move once their day's "
+                        + "partition is created", stranded);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("processed_messages partition maintenance failed, will retry: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Days from {@code today} to {@code today + daysAhead} (UTC) that have no partition yet.
+     */
+    static List<LocalDate> missingDays(LocalDate today, int daysAhead, Collection<LocalDate> existing) {
+        List<LocalDate> missing = new ArrayList<>();
+        for (int i = 0; i <= daysAhead; i++) {
+            LocalDate day = today.plusDays(i);
+            if (!existing.contains(day)) {
+                missing.add(day);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Days whose partition lies entirely before {@code cutoff}, i.e. whose end (next midnight UTC)
+     * is not after it. A partition still overlapping the window is kept whole.
+     */
+    static List<LocalDate> expiredDays(Collection<LocalDate> existing, Instant cutoff) {
+        return existing.stream()
+                .filter(day -> !day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().isAfter(cutoff))
+                .sorted()
+                .toList();
+    }
+}
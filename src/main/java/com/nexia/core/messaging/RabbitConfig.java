@@ -1,12 +1,16 @@
 package com.nexia.core.messaging;
 
+import org.springframework.amqp.core.AnonymousQueue;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -16,6 +20,8 @@ public class RabbitConfig {
     public static final String EXCHANGE_NAME = "nexia.events";
     public static final String USER_EVENTS_QUEUE = "nexia.core.user-events";
     public static final String USER_REGISTERED_ROUTING_KEY = "user.registered";
+    public static final String USER_INVALIDATED_ROUTING_KEY = "user.invalidated";
+    public static final String USER_EVENTS_CONTAINER_FACTORY = "userEventsContainerFactory";
 
     @Bean
     public DirectExchange nexiaExchange() {
@@ -35,6 +41,23 @@ public class RabbitConfig {
                 .with(USER_REGISTERED_ROUTING_KEY);
     }
 
+    /**
+     * Server-named, exclusive, auto-delete queue: one per replica, gone when the replica stops.
+     * Binding each of them with the same key fans invalidations out to all replicas.
+     */
+    @Bean
+    public Queue userInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding userInvalidationBinding(DirectExchange nexiaExchange, Queue userInvalidationQueue) {
+        return BindingBuilder
+                .bind(userInvalidationQueue)
+                .to(nexiaExchange)
+                .with(USER_INVALIDATED_ROUTING_KEY);
+    }
+
     @Bean
     public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -47,4 +70,32 @@ public class RabbitConfig {
         template.setMessageConverter(messageConverter);
         return template;
     }
+
+    /**
+     * Batch consumer for {@link #USER_EVENTS_QUEUE}: listeners receive up to {@code batchSize}
+     * messages at once (fewer after {@code receiveTimeoutMillis} of silence) and the whole batch
+     * is acked together. Starts from Boot's spring.rabbitmq.listener.simple.* settings.
+     */
+    @Bean(USER_EVENTS_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory userEventsContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${nexia.messaging.userEvents.batchSize:50}") int batchSize,
+            @Value("${nexia.messaging.userEvents.receiveTimeoutMillis:200}") long receiveTimeoutMillis,
+            @Value("${nexia.messaging.userEvents.concurrency:1}") int concurrency,
+            @Value("${nexia.messaging.userEvents.maxConcurrency:4}") int maxConcurrency,
+            @Value("${nexia.messaging.userEvents.prefetch:250}") int prefetch) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMillis);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        // a consumer can never assemble a batch larger than its prefetch window
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        return factory;
+    }
 }
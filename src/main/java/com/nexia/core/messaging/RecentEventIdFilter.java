@@ -0,0 +1,176 @@
+package com.nexia.core.messaging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Optional in-memory Bloom filter over the event ids processed within the dedup window.
+ * A "definitely not seen" answer lets {@link UserEventListener} skip the Postgres probe for that
+ * id; "maybe seen" still goes to the database, so false positives only cost a query.
+ * <p>
+ * Two generations are kept and rotated every window, so an id stays covered for at least one
+ * full window. The filter is seeded from {@code processed_messages} at startup and answers
+ * nothing until that finishes.
+ * <p>
+ * Only ids processed by this instance are added: with several consumer replicas another node's
+ * ids are invisible here, so keep it disabled ({@code nexia.messaging.dedup.localFilter.enabled})
+ * unless a single instance consumes {@code user.events}.
+ */
+@Component
+public class RecentEventIdFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RecentEventIdFilter.class);
+
+    private final boolean enabled;
+    private final JdbcTemplate jdbc;
+    private final Duration window;
+    private final int bits;
+    private final int hashes;
+    private final Clock clock;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+    private volatile boolean ready;
+
+    @Autowired
+    public RecentEventIdFilter(JdbcTemplate jdbc,
+                               @Value("${nexia.messaging.dedup.localFilter.enabled:false}") boolean enabled,
+                               @Value("${nexia.messaging.dedup.window:7d}") Duration window,
+                               @Value("${nexia.messaging.dedup.localFilter.expectedIds:1000000}") long expectedIds,
+                               @Value("${nexia.messaging.dedup.localFilter.falsePositiveRate:0.01}") double falsePositiveRate) {
+        this(jdbc, enabled, window, expectedIds, falsePositiveRate, Clock.systemUTC());
+    }
+
+    RecentEventIdFilter(JdbcTemplate jdbc, boolean enabled, Duration window, long expectedIds,
+                        double falsePositiveRate, Clock clock) {
+        this.jdbc = jdbc;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.window = window;
+
+        // Standard sizing: m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long m = (long) Math.ceil(-expectedIds * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = (int) Math.min(Math.max(m, 64), Integer.MAX_VALUE - 63);
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedIds * Math.log(2)));
+
+        Instant now = clock.instant();
+        this.current = new Generation(bits, now);
+        this.previous = new Generation(bits, now);
+    }
+
+    public boolean isActive() {
+        return enabled && ready;
+    }
+
+    /**
+     * False means the id was definitely not processed within the window.
+     */
+    public boolean mightContain(UUID id) {
+        Generation cur = current;
+        Generation prev = previous;
+        return cur.mightContain(id, hashes) || prev.mightContain(id, hashes);
+    }
+
+    public void put(UUID id) {
+        if (!enabled) {
+            return;
+        }
+        rotateIfDue();
+        current.put(id, hashes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!enabled) {
+            return;
+        }
+        Instant since = clock.instant().minus(window);
+        long[] count = {0};
+        try {
+            jdbc.query(con -> {
+                var ps = con.prepareStatement("SELECT event_id FROM processed_messages WHERE occurred_at >= ?");
+                ps.setTimestamp(1, Timestamp.from(since));
+                ps.setFetchSize(10_000);
+                return ps;
+            }, rs -> {
+                current.put(rs.getObject(1, UUID.class), hashes);
+                count[0]++;
+            });
+            ready = true;
+            log.info("Recent event id filter seeded with {} ids ({} bits, {} hashes)", count[0], bits, hashes);
+        } catch (RuntimeException ex) {
+            log.warn("Recent event id filter not seeded, dedup stays on Postgres: {}", ex.getMessage());
+        }
+    }
+
+    private void rotateIfDue() {
+        Generation cur = current;
+        if (Duration.between(cur.startedAt, clock.instant()).compareTo(window) < 0) {
+            return;
+        }
+        synchronized (this) {
+            if (current == cur) {
+                previous = cur;
+                current = new Generation(bits, clock.instant());
+            }
+        }
+    }
+
+    private static final class Generation {
+
+        private final AtomicLongArray words;
+        private final int bits;
+        private final Instant startedAt;
+
+        Generation(int bits, Instant startedAt) {
+            this.words = new AtomicLongArray((bits + 63) / 64);
+            this.bits = bits;
+            this.startedAt = startedAt;
+        }
+
+        void put(UUID id, int hashes) {
+            long h1 = id.getMostSignificantBits();
+            long h2 = id.getLeastSignificantBits();
+            for (int i = 0; i < hashes; i++) {
+                int bit = index(h1 + i * h2);
+                int word = bit >>> 6;
+                long mask = 1L << bit;
+                long old;
+                do {
+                    old = words.get(word);
+                } while ((old & mask) == 0 && !words.compareAndSet(word, old, old | mask));
+            }
+        }
+
+        boolean mightContain(UUID id, int hashes) {
+            long h1 = id.getMostSignificantBits();
+            long h2 = id.getLeastSignificantBits();
+            for (int i = 0; i < hashes; i++) {
+                int bit = index(h1 + i * h2);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Random UUIDs are already uniformly distributed; double hashing (Kirsch–Mitzenmacher)
+        // over the two halves gives the k probe positions.
+        private int index(long combined) {
+            return (int) Long.remainderUnsigned(combined, bits);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.nexia.core.messaging;
 
 import com.nexia.core.domain.ProcessedMessage;
 import com.nexia.core.messaging.events.UserRegisteredEvent;
+import com.nexia.core.repo.ProcessedMessageJdbcRepository;
 import com.nexia.core.repo.ProcessedMessageRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,28 +10,89 @@ import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
 @Component
 public class UserEventListener {
 
     private static final Logger log = LoggerFactory.getLogger(UserEventListener.class);
 
-    private final ProcessedMessageRepository processedMessages;
+    private final ProcessedMessageRepository processedMessageLookup;
+    private final ProcessedMessageJdbcRepository processedMessages;
+    private final RecentEventIdFilter recentIds;
 
-    public UserEventListener(ProcessedMessageRepository processedMessages) {
+    public UserEventListener(ProcessedMessageRepository processedMessageLookup,
+                             ProcessedMessageJdbcRepository processedMessages,
+                             RecentEventIdFilter recentIds) {
+        this.processedMessageLookup = processedMessageLookup;
         this.processedMessages = processedMessages;
+        this.recentIds = recentIds;
     }
 
+    /**
+     * Handles a whole consumer batch in one transaction: one dedup query, one insert of the new
+     * ids, and the container acks every message of the batch once this returns. Any failure rolls
+     * back and requeues the batch; the dedup makes the redelivery safe.
+     * <p>
+     * The lookup skips known redeliveries; the authority is the insert, keyed by
+     * {@code (eventId, occurredAt)} from the event itself with ON CONFLICT DO NOTHING, and only the
+     * events it actually inserted are processed. Two consumers racing on the same event therefore
+     * process it once: the second insert waits for the first transaction and then skips the row.
+     * <p>
+     * Events older than {@code nexia.messaging.dedup.window} land in the default partition and are
+     * only recognised until the retention job purges it, which is why the window must exceed any
+     * realistic redelivery delay.
+     */
     @Transactional
-    @RabbitListener(queues = RabbitConfig.USER_EVENTS_QUEUE)
-    public void handleUserRegistered(UserRegisteredEvent event) {
-        if (processedMessages.existsById(event.eventId())) {
-            log.info("Duplicate UserRegisteredEvent ignored: eventId={}", event.eventId());
-            return;
+    @RabbitListener(queues = RabbitConfig.USER_EVENTS_QUEUE,
+            containerFactory = RabbitConfig.USER_EVENTS_CONTAINER_FACTORY)
+    public void handleUserRegistered(List<UserRegisteredEvent> events) {
+        Set<UUID> alreadyProcessed = findAlreadyProcessed(events);
+
+        Set<UUID> inBatch = new HashSet<>();
+        List<UserRegisteredEvent> candidates = new ArrayList<>(events.size());
+        List<ProcessedMessage> rows = new ArrayList<>(events.size());
+
+        for (UserRegisteredEvent event : events) {
+            if (alreadyProcessed.contains(event.eventId()) || !inBatch.add(event.eventId())) {
+                log.info("Duplicate UserRegisteredEvent ignored: eventId={}", event.eventId());
+                continue;
+            }
+            candidates.add(event);
+            rows.add(ProcessedMessage.now(event.eventId(), event.occurredAt()));
         }
 
-        processedMessages.save(ProcessedMessage.now(event.eventId()));
+        Set<UUID> inserted = processedMessages.insertNew(rows);
 
-        log.info("Processed UserRegisteredEvent: eventId={}, userId={}, email={}",
-                event.eventId(), event.userId(), event.email());
+        for (UserRegisteredEvent event : candidates) {
+            if (!inserted.contains(event.eventId())) {
+                log.info("Duplicate UserRegisteredEvent ignored (processed concurrently): eventId={}", event.eventId());
+                continue;
+            }
+
+            log.info("Processed UserRegisteredEvent: eventId={}, userId={}, email={}",
+                    event.eventId(), event.userId(), event.email());
+            recentIds.put(event.eventId());
+        }
+    }
+
+    private Set<UUID> findAlreadyProcessed(List<UserRegisteredEvent> events) {
+        List<UserRegisteredEvent> candidates = events;
+        if (recentIds.isActive()) {
+            // Ids the filter has definitely not seen need no database probe
+            candidates = candidates.stream().filter(event -> recentIds.mightContain(event.eventId())).toList();
+        }
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        Instant from = candidates.stream().map(UserRegisteredEvent::occurredAt).min(Instant::compareTo).orElseThrow();
+        Instant to = candidates.stream().map(UserRegisteredEvent::occurredAt).max(Instant::compareTo).orElseThrow();
+        return processedMessageLookup.findExistingIds(
+                candidates.stream().map(UserRegisteredEvent::eventId).toList(), from, to);
     }
 }
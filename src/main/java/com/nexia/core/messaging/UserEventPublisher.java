@@ -1,23 +1,67 @@
 package com.nexia.core.messaging;
 
+import com.nexia.core.messaging.events.UserInvalidatedEvent;
 import com.nexia.core.messaging.events.UserRegisteredEvent;
+import com.nexia.core.repo.OutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+
 @Component
 public class UserEventPublisher {
 
+    private static final Logger log = LoggerFactory.getLogger(UserEventPublisher.class);
+
     private final RabbitTemplate rabbitTemplate;
+    private final Jackson2JsonMessageConverter messageConverter;
+    private final OutboxRepository outbox;
 
-    public UserEventPublisher(RabbitTemplate rabbitTemplate) {
+    public UserEventPublisher(RabbitTemplate rabbitTemplate,
+                              Jackson2JsonMessageConverter messageConverter,
+                              OutboxRepository outbox) {
         this.rabbitTemplate = rabbitTemplate;
+        this.messageConverter = messageConverter;
+        this.outbox = outbox;
     }
 
+    /**
+     * Enqueues the event in the transactional outbox; {@link OutboxRelay} publishes it.
+     * Must run inside the transaction that inserts the user, so either both commit or neither does.
+     */
     public void publishUserRegistered(UserRegisteredEvent event) {
-        rabbitTemplate.convertAndSend(
+        // Serialize with the same converter the listeners use, so the wire format is unchanged
+        Message message = messageConverter.toMessage(event, new MessageProperties());
+
+        outbox.append(
+                event.eventId(),
                 RabbitConfig.EXCHANGE_NAME,
                 RabbitConfig.USER_REGISTERED_ROUTING_KEY,
-                event
+                message.getMessageProperties().getHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME),
+                new String(message.getBody(), StandardCharsets.UTF_8)
         );
     }
+
+    /**
+     * Best effort: the local cache is already invalidated and other replicas' entries
+     * expire by TTL, so a broker outage must not fail the write that triggered this.
+     */
+    public void publishUserInvalidated(UserInvalidatedEvent event) {
+        try {
+            rabbitTemplate.convertAndSend(
+                    RabbitConfig.EXCHANGE_NAME,
+                    RabbitConfig.USER_INVALIDATED_ROUTING_KEY,
+                    event
+            );
+        } catch (AmqpException ex) {
+            log.warn("Could not broadcast UserInvalidatedEvent: userId={}, error={}", event.userId(), ex.getMessage());
+        }
+    }
 }
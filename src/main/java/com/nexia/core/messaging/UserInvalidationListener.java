@@ -0,0 +1,26 @@
+package com.nexia.core.messaging;
+
+import com.nexia.core.messaging.events.UserInvalidatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UserInvalidationListener.class);
+
+    private final UserInvalidator userInvalidator;
+
+    public UserInvalidationListener(UserInvalidator userInvalidator) {
+        this.userInvalidator = userInvalidator;
+    }
+
+    // Per-replica anonymous queue: every instance receives every invalidation (including its own, harmlessly)
+    @RabbitListener(queues = "#{userInvalidationQueue.name}")
+    public void handleUserInvalidated(UserInvalidatedEvent event) {
+        userInvalidator.apply(event);
+        log.debug("Applied UserInvalidatedEvent: eventId={}, userId={}", event.eventId(), event.userId());
+    }
+}
@@ -0,0 +1,41 @@
+package com.nexia.core.messaging;
+
+import com.nexia.core.messaging.events.UserInvalidatedEvent;
+import com.nexia.core.repo.UserCache;
+import com.nexia.core.security.TokenRevocationRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Single entry point for "this user changed": applies the invalidation locally right away
+ * and broadcasts it so the other replicas do the same.
+ */
+@Component
+public class UserInvalidator {
+
+    private final UserCache userCache;
+    private final TokenRevocationRegistry revocations;
+    private final UserEventPublisher userEventPublisher;
+
+    public UserInvalidator(UserCache userCache,
+                           TokenRevocationRegistry revocations,
+                           UserEventPublisher userEventPublisher) {
+        this.userCache = userCache;
+        this.revocations = revocations;
+        this.userEventPublisher = userEventPublisher;
+    }
+
+    public void invalidate(UUID userId, String email, boolean revokeTokens) {
+        UserInvalidatedEvent event = UserInvalidatedEvent.of(userId, email, revokeTokens);
+        apply(event);
+        userEventPublisher.publishUserInvalidated(event);
+    }
+
+    void apply(UserInvalidatedEvent event) {
+        userCache.evict(event.userId(), event.email());
+        if (event.revokeTokens()) {
+            revocations.revoke(event.userId());
+        }
+    }
+}
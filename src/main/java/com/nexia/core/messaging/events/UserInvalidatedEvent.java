@@ -0,0 +1,26 @@
+package com.nexia.core.messaging.events;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Broadcast to every nexia-core replica when a user row changed or was deleted,
+ * so each replica drops its cached copy (and, if requested, the user's tokens).
+ */
+public record UserInvalidatedEvent(
+        UUID eventId,
+        Instant occurredAt,
+        UUID userId,
+        String email,
+        boolean revokeTokens
+) {
+    public static UserInvalidatedEvent of(UUID userId, String email, boolean revokeTokens) {
+        return new UserInvalidatedEvent(
+                UUID.randomUUID(),
+                Instant.now(),
+                userId,
+                email,
+                revokeTokens
+        );
+    }
+}
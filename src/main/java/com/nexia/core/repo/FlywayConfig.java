@@ -0,0 +1,43 @@
+package com.nexia.core.repo;
+
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.flywaydb.core.internal.scanner.Scanner;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Flyway settings that must stay runtime decisions even in Spring AOT builds, where
+ * {@code spring.flyway.enabled} and other bean conditions are fixed at build time.
+ */
+@Configuration
+public class FlywayConfig {
+
+    // false = start without migrating (CDS training run, native image, migrations run by a separate job)
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${nexia.flyway.migrateOnStartup:true}") boolean migrateOnStartup) {
+        return flyway -> {
+            if (migrateOnStartup) {
+                flyway.migrate();
+            }
+        };
+    }
+
+    // Under AOT (JVM or native), Boot 3.4 installs a resource provider built against Flyway 10's
+    // scanner, which fails on Flyway 11. Customizers run first, and Boot keeps a provider already set.
+    // Flyway's own scanner works on the JVM; a native image does not see the migrations this way,
+    // so native images run with migrateOnStartup=false against a schema migrated by the JVM image.
+    @Bean
+    public FlywayConfigurationCustomizer flywayClasspathScanner() {
+        return configuration -> {
+            if (AotDetector.useGeneratedArtifacts()) {
+                configuration.resourceProvider(
+                        new Scanner<>(JavaMigration.class, configuration, configuration.getLocations()));
+            }
+        };
+    }
+}
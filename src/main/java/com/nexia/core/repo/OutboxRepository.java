@@ -0,0 +1,80 @@
+package com.nexia.core.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class OutboxRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public OutboxRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * MANDATORY: an outbox row only makes sense inside the transaction that writes the data it describes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(UUID id, String exchange, String routingKey, String eventType, String payload) {
+        jdbc.update("""
+                INSERT INTO outbox_events (id, exchange, routing_key, event_type, payload)
+                VALUES (?, ?, ?, ?, CAST(? AS jsonb))
+                """, id, exchange, routingKey, eventType, payload);
+    }
+
+    /**
+     * Oldest pending events, row-locked until the caller's transaction ends.
+     * SKIP LOCKED lets several relays (one per replica) drain disjoint batches.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<PendingEvent> lockOldest(int limit) {
+        return jdbc.query("""
+                SELECT id, exchange, routing_key, event_type, payload
+                FROM outbox_events
+                ORDER BY created_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+                """, (rs, rowNum) -> new PendingEvent(
+                rs.getObject("id", UUID.class),
+                rs.getString("exchange"),
+                rs.getString("routing_key"),
+                rs.getString("event_type"),
+                rs.getString("payload")
+        ), limit);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void delete(Collection<UUID> ids) {
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement("DELETE FROM outbox_events WHERE id = ANY(?)");
+            Array array = con.createArrayOf("uuid", ids.toArray());
+            ps.setArray(1, array);
+            return ps;
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public Backlog backlog() {
+        return jdbc.queryForObject(
+                "SELECT count(*), min(created_at) FROM outbox_events",
+                (rs, rowNum) -> {
+                    OffsetDateTime oldest = rs.getObject(2, OffsetDateTime.class);
+                    return new Backlog(rs.getLong(1), oldest == null ? null : oldest.toInstant());
+                });
+    }
+
+    public record PendingEvent(UUID id, String exchange, String routingKey, String eventType, String payload) {}
+
+    public record Backlog(long pending, Instant oldestCreatedAt) {}
+}
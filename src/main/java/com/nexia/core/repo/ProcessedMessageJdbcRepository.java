@@ -0,0 +1,62 @@
+package com.nexia.core.repo;
+
+import com.nexia.core.domain.ProcessedMessage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Plain-JDBC writes to {@code processed_messages}: JPA cannot express ON CONFLICT ... RETURNING.
+ */
+@Repository
+public class ProcessedMessageJdbcRepository {
+
+    // One statement for the whole batch; rows whose (event_id, occurred_at) exists are skipped,
+    // including ones committed by a concurrent consumer after this transaction's lookup.
+    // Instants travel as ISO-8601 text so the session time zone cannot shift them
+    private static final String INSERT_NEW = """
+            INSERT INTO processed_messages (event_id, occurred_at, processed_at)
+            SELECT * FROM unnest(CAST(? AS uuid[]), CAST(? AS timestamptz[]), CAST(? AS timestamptz[]))
+            ON CONFLICT DO NOTHING
+            RETURNING event_id
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public ProcessedMessageJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Records the messages as processed.
+     *
+     * @return ids of the rows actually inserted; the others were already recorded
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Set<UUID> insertNew(Collection<ProcessedMessage> messages) {
+        Set<UUID> inserted = new HashSet<>();
+        if (messages.isEmpty()) {
+            return inserted;
+        }
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_NEW);
+            ps.setArray(1, con.createArrayOf("uuid",
+                    messages.stream().map(ProcessedMessage::getEventId).toArray()));
+            ps.setArray(2, con.createArrayOf("text",
+                    messages.stream().map(m -> m.getOccurredAt().toString()).toArray()));
+            ps.setArray(3, con.createArrayOf("text",
+                    messages.stream().map(m -> m.getProcessedAt().toString()).toArray()));
+            return ps;
+        }, rs -> {
+            inserted.add(rs.getObject(1, UUID.class));
+        });
+        return inserted;
+    }
+}
@@ -0,0 +1,108 @@
+package com.nexia.core.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DDL for the daily partitions of {@code processed_messages} (see V7).
+ * Partitions are named {@code processed_messages_yyyyMMdd} and cover one UTC day.
+ */
+@Repository
+public class ProcessedMessagePartitionRepository {
+
+    private static final String PREFIX = "processed_messages_";
+    private static final String DEFAULT_PARTITION = "processed_messages_default";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbc;
+
+    public ProcessedMessagePartitionRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Days that currently have a partition (the default partition is not included).
+     */
+    public List<LocalDate> partitionDays() {
+        List<String> names = jdbc.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'processed_messages'
+                """, String.class);
+
+        List<LocalDate> days = new ArrayList<>();
+        for (String name : names) {
+            String suffix = name.substring(PREFIX.length());
+            if (suffix.matches("\\d{8}")) {
+                days.add(LocalDate.parse(suffix, SUFFIX));
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Creates the day's partition. Postgres refuses that while the default partition holds rows
+     * for the day, so those are moved over in the same transaction: detach the default, create
+     * the day, move its rows, re-attach. The parent stays locked throughout, so no insert can
+     * miss a partition in between.
+     *
+     * @return rows moved out of the default partition
+     */
+    @Transactional
+    public int create(LocalDate day) {
+        // Identifiers/bounds are derived from a LocalDate, never from user input
+        String from = "'" + day + " 00:00:00+00'";
+        String to = "'" + day.plusDays(1) + " 00:00:00+00'";
+        String createPartition = "CREATE TABLE IF NOT EXISTS " + name(day)
+                + " PARTITION OF processed_messages FOR VALUES FROM (" + from + ") TO (" + to + ")";
+
+        Integer stranded = jdbc.queryForObject("SELECT count(*) FROM " + DEFAULT_PARTITION
+                + " WHERE occurred_at >= " + from + " AND occurred_at < " + to, Integer.class);
+        if (stranded == null || stranded == 0) {
+            jdbc.execute(createPartition);
+            return 0;
+        }
+
+        jdbc.execute("ALTER TABLE processed_messages DETACH PARTITION " + DEFAULT_PARTITION);
+        jdbc.execute(createPartition);
+        int moved = jdbc.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE occurred_at >= " + from + " AND occurred_at < " + to
+                + " RETURNING event_id, occurred_at, processed_at)"
+                + " INSERT INTO " + name(day) + " (event_id, occurred_at, processed_at) SELECT * FROM moved");
+        jdbc.execute("ALTER TABLE processed_messages ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+        return moved;
+    }
+
+    public void drop(LocalDate day) {
+        jdbc.execute("DROP TABLE IF EXISTS " + name(day));
+    }
+
+    /**
+     * Rows outside every day partition: events older than the maintained range, or too far ahead.
+     */
+    public long defaultPartitionRows() {
+        Long rows = jdbc.queryForObject("SELECT count(*) FROM " + DEFAULT_PARTITION, Long.class);
+        return rows == null ? 0 : rows;
+    }
+
+    /**
+     * Deletes default-partition rows that are past retention; the day partitions are dropped instead.
+     */
+    public int purgeDefaultPartition(Instant before) {
+        return jdbc.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE occurred_at < ?", Timestamp.from(before));
+    }
+
+    private static String name(LocalDate day) {
+        return PREFIX + day.format(SUFFIX);
+    }
+}
@@ -2,8 +2,23 @@ package com.nexia.core.repo;
 
 import com.nexia.core.domain.ProcessedMessage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 
-public interface ProcessedMessageRepository extends JpaRepository<ProcessedMessage, UUID> {
+public interface ProcessedMessageRepository extends JpaRepository<ProcessedMessage, ProcessedMessage.Key> {
+
+    // Set-based dedup for a whole consumer batch: one query instead of existsById per message.
+    // The occurred_at range of the batch lets Postgres prune every partition the batch does not touch.
+    @Query("""
+            select p.eventId from ProcessedMessage p
+            where p.eventId in :ids and p.occurredAt between :from and :to
+            """)
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids,
+                              @Param("from") Instant from,
+                              @Param("to") Instant to);
 }
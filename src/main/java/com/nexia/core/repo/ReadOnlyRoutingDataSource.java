@@ -0,0 +1,160 @@
+package com.nexia.core.repo;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Source of read-only connections (see {@link ReplicaDataSourceConfig}): the replica pool while it
+ * is reachable and no further behind than {@code maxLagMillis}, the primary otherwise.
+ * <p>
+ * Code that must see its own recent writes wraps the read in {@link #onPrimary(Supplier)}.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadOnlyRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    // 0 when the replica has replayed everything it received (an idle primary is not "lag")
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() THEN 0
+                     WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END
+            """;
+
+    private final HikariDataSource replica;
+    private final long maxLagMillis;
+
+    private volatile boolean replicaUsable = true;
+    private volatile long lagMillis;
+
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReadOnlyRoutingDataSource(DataSource primary, HikariDataSource replica, long maxLagMillis,
+                                     MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLagMillis = maxLagMillis;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+
+        this.replicaReads = Counter.builder("nexia.datasource.reads")
+                .description("Read-only connections by the pool that served them")
+                .tag("target", REPLICA)
+                .register(meterRegistry);
+        this.primaryReads = Counter.builder("nexia.datasource.reads")
+                .description("Read-only connections by the pool that served them")
+                .tag("target", PRIMARY)
+                .register(meterRegistry);
+        Gauge.builder("nexia.datasource.replica.usable", this, ds -> ds.replicaUsable ? 1 : 0)
+                .description("1 while read-only work goes to the replica")
+                .register(meterRegistry);
+        Gauge.builder("nexia.datasource.replica.lag", this, ds -> ds.lagMillis)
+                .description("Replication lag seen by the last health check")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code read} with read-only connections taken from the primary (read-your-writes).
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        if (PINNED_TO_PRIMARY.get() != null) {
+            return read.get();
+        }
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PINNED_TO_PRIMARY.remove();
+        }
+    }
+
+    /**
+     * Whether reads on this thread currently go to the primary regardless of replica health.
+     */
+    static boolean pinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return replicaUsable && !pinnedToPrimary() ? REPLICA : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == PRIMARY) {
+            primaryReads.increment();
+            return super.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException ex) {
+            // Fail over for this read and the following ones until the next health check passes
+            markUnusable("connection failed: " + ex.getMessage());
+            primaryReads.increment();
+            return getResolvedDefaultDataSource().getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Pools are configured with their own credentials
+        return getConnection();
+    }
+
+    @Scheduled(fixedDelayString = "${nexia.datasource.replica.healthCheckMillis:2000}")
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+            rs.next();
+            lagMillis = (long) rs.getDouble(1);
+            if (lagMillis > maxLagMillis) {
+                markUnusable("lag " + lagMillis + "ms > " + maxLagMillis + "ms");
+                return;
+            }
+            if (!replicaUsable) {
+                log.info("Replica is healthy again (lag {}ms), routing read-only work back to it", lagMillis);
+            }
+            replicaUsable = true;
+        } catch (SQLException ex) {
+            markUnusable("health check failed: " + ex.getMessage());
+        }
+    }
+
+    private void markUnusable(String reason) {
+        if (replicaUsable) {
+            log.warn("Replica unusable ({}), routing read-only work to the primary", reason);
+        }
+        replicaUsable = false;
+    }
+
+    @Override
+    public void destroy() {
+        replica.close();
+    }
+}
@@ -0,0 +1,71 @@
+package com.nexia.core.repo;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write split: {@code @Transactional(readOnly = true)} work (including Spring Data's
+ * read-only repository methods) is served by a replica pool, everything else by the primary.
+ * <p>
+ * The lazy proxy only fetches a physical connection at the first statement, once the
+ * transaction manager has marked the connection read-only, so the routing decision sees it.
+ * Replaces Boot's single DataSource only when {@code nexia.datasource.replica.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "nexia.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    // Same binding as Boot's own pool: spring.datasource.* plus spring.datasource.hikari.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("nexia-primary");
+        return primary;
+    }
+
+    @Bean
+    public ReadOnlyRoutingDataSource readOnlyDataSource(
+            HikariDataSource primaryDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${nexia.datasource.replica.url}") String url,
+            @Value("${nexia.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${nexia.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${nexia.datasource.replica.maximumPoolSize:10}") int maximumPoolSize,
+            @Value("${nexia.datasource.replica.connectionTimeoutMillis:1000}") long connectionTimeoutMillis,
+            @Value("${nexia.datasource.replica.maxLagMillis:1000}") long maxLagMillis) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("nexia-replica");
+        replica.setJdbcUrl(url);
+        replica.setUsername(username);
+        replica.setPassword(password);
+        replica.setMaximumPoolSize(maximumPoolSize);
+        replica.setReadOnly(true);
+        // A slow or missing replica must cost a short wait, then the primary takes over
+        replica.setConnectionTimeout(connectionTimeoutMillis);
+        // Start even while the replica is down; the health check picks it up later
+        replica.setInitializationFailTimeout(-1);
+        // Not a bean (a down replica must not fail /actuator/health), so wire pool metrics here
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new ReadOnlyRoutingDataSource(primaryDataSource, replica, maxLagMillis, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReadOnlyRoutingDataSource readOnlyDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(readOnlyDataSource);
+        return proxy;
+    }
+}
@@ -0,0 +1,140 @@
+package com.nexia.core.repo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nexia.core.domain.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Near cache in front of {@link UserRepository} lookups by id and by email.
+ * <p>
+ * Users are stored once, by id; the email side is only an index to the id. Evicting an id
+ * is therefore enough to invalidate both lookups: a stale email entry misses on the id
+ * side (or fails the email check) and falls through to the database.
+ * Cached values are detached copies, never instances managed by a persistence context.
+ * <p>
+ * With a read replica, a user evicted within the last {@code readYourWritesMillis} is reloaded
+ * from the primary, so a lagging replica can neither hide a fresh registration nor put a stale
+ * copy back into this cache. Evictions arrive from every replica, so this holds cluster-wide.
+ * <p>
+ * A load that overlaps an eviction does not keep its result: the row it read may predate the
+ * write that caused the eviction. Writes are rare next to reads, so one eviction counter for the
+ * whole cache is enough; the cost of a collision is a single extra miss.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository users;
+    private final Cache<UUID, User> byId;
+    private final Cache<String, UUID> idByEmail;
+    // Ids and emails written recently; null without a replica
+    private final Cache<Object, Boolean> recentlyWritten;
+    // Incremented before every eviction; see load()
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserCache(UserRepository users,
+                     @Value("${nexia.users.cache.maxSize:10000}") long maxSize,
+                     @Value("${nexia.users.cache.ttlSeconds:60}") long ttlSeconds,
+                     @Value("${nexia.datasource.replica.enabled:false}") boolean replicaEnabled,
+                     @Value("${nexia.datasource.replica.readYourWritesMillis:5000}") long readYourWritesMillis,
+                     MeterRegistry meterRegistry) {
+        this.users = users;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.idByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.recentlyWritten = replicaEnabled && readYourWritesMillis > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(Duration.ofMillis(readYourWritesMillis))
+                        .build()
+                : null;
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByEmail, "users.idByEmail");
+    }
+
+    public Optional<User> findById(UUID id) {
+        User cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return load(id, () -> users.findById(id));
+    }
+
+    public Optional<User> findByEmail(String email) {
+        UUID id = idByEmail.getIfPresent(email);
+        if (id != null) {
+            User cached = byId.getIfPresent(id);
+            if (cached != null && cached.getEmail().equals(email)) {
+                return Optional.of(cached);
+            }
+        }
+        return load(email, () -> users.findByEmail(email));
+    }
+
+    public void evict(UUID id, String email) {
+        evictions.incrementAndGet();
+        if (id != null) {
+            byId.invalidate(id);
+        }
+        if (email != null) {
+            idByEmail.invalidate(email);
+        }
+        if (recentlyWritten != null) {
+            if (id != null) {
+                recentlyWritten.put(id, Boolean.TRUE);
+            }
+            if (email != null) {
+                recentlyWritten.put(email, Boolean.TRUE);
+            }
+        }
+    }
+
+    private Optional<User> load(Object key, Supplier<Optional<User>> query) {
+        long before = evictions.get();
+        boolean fresh = recentlyWritten != null && recentlyWritten.getIfPresent(key) != null;
+        Optional<User> loaded = fresh ? ReadOnlyRoutingDataSource.onPrimary(query) : query.get();
+        return loaded.map(user -> {
+            User copy = copy(user);
+            if (evictions.get() != before) {
+                // Evicted while the query ran: the row may already be stale
+                return copy;
+            }
+            byId.put(copy.getId(), copy);
+            idByEmail.put(copy.getEmail(), copy.getId());
+            if (evictions.get() != before) {
+                // An eviction that ran between the check and the puts may have missed them
+                byId.invalidate(copy.getId());
+                idByEmail.invalidate(copy.getEmail());
+            }
+            return copy;
+        });
+    }
+
+    private static User copy(User loaded) {
+        return new User(
+                loaded.getId(),
+                loaded.getEmail(),
+                loaded.getFullName(),
+                loaded.getCreatedAt(),
+                loaded.getPasswordHash(),
+                loaded.getRole(),
+                loaded.getTokenVersion()
+        );
+    }
+}
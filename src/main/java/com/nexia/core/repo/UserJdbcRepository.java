@@ -0,0 +1,218 @@
+package com.nexia.core.repo;
+
+import com.nexia.core.api.dto.UserResponse;
+import com.nexia.core.domain.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Plain-JDBC access to users for bulk and list paths where JPA's persistence context is pure overhead.
+ */
+@Repository
+public class UserJdbcRepository {
+
+    private static final String INSERT_IGNORING_CONFLICT = """
+            INSERT INTO users (id, email, full_name, created_at, password_hash, role)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (email) DO NOTHING
+            """;
+
+    // Keyset pagination on idx_users_created_at_id. The CAST keeps the comparison on the
+    // column's own type (timestamp), otherwise Postgres casts the column and skips the index.
+    private static final String FIRST_PAGE = """
+            SELECT id, email, full_name, created_at FROM users
+            ORDER BY created_at, id
+            LIMIT ?
+            """;
+
+    private static final String PAGE_AFTER = """
+            SELECT id, email, full_name, created_at FROM users
+            WHERE (created_at, id) > (CAST(? AS timestamp), ?)
+            ORDER BY created_at, id
+            LIMIT ?
+            """;
+
+    // Search (V8 indexes). Patterns and terms arrive lower-cased; LIKE's escape character is '\'
+    private static final String PREFIX_MATCH = """
+            SELECT id, email, full_name, created_at FROM users
+            WHERE (lower(email) LIKE ? OR lower(full_name) LIKE ?)
+            """;
+
+    // Best match first, ties by id; score is real, so the cursor compares it as real as well
+    private static final String FUZZY_MATCH = """
+            SELECT * FROM (
+                SELECT id, email, full_name, created_at,
+                       greatest(similarity(lower(email), ?), similarity(lower(full_name), ?)) AS score
+                FROM users
+                WHERE lower(email) % ? OR lower(full_name) % ?
+            ) matches
+            """;
+
+    // Only the columns UserResponse needs: no password_hash, no entity, no dirty-checking snapshot
+    private static final RowMapper<UserResponse> USER_RESPONSE = (rs, rowNum) -> new UserResponse(
+            rs.getObject("id", UUID.class),
+            rs.getString("email"),
+            rs.getString("full_name"),
+            // same UTC interpretation Hibernate applies to Instant columns
+            rs.getObject("created_at", OffsetDateTime.class).toInstant()
+    );
+
+    private final JdbcTemplate jdbc;
+    private final int exportFetchSize;
+
+    public UserJdbcRepository(JdbcTemplate jdbc,
+                              @Value("${nexia.users.export.fetchSize:1000}") int exportFetchSize) {
+        this.jdbc = jdbc;
+        this.exportFetchSize = exportFetchSize;
+    }
+
+    /**
+     * Streams every user through a forward-only server-side cursor, one row at a time.
+     * Postgres only honours the fetch size with autocommit off, hence the (read-only) transaction;
+     * without it the driver would buffer the whole result set.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserResponse> sink) {
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, email, full_name, created_at FROM users ORDER BY created_at, id",
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+            );
+            ps.setFetchSize(exportFetchSize);
+            return ps;
+        }, rs -> {
+            sink.accept(USER_RESPONSE.mapRow(rs, 0));
+        });
+    }
+
+    /**
+     * First page of the (createdAt, id) ordering.
+     */
+    @Transactional(readOnly = true)
+    public List<UserResponse> findFirstPage(int limit) {
+        return jdbc.query(FIRST_PAGE, USER_RESPONSE, limit);
+    }
+
+    /**
+     * Page of the (createdAt, id) ordering that starts right after the given row.
+     */
+    @Transactional(readOnly = true)
+    public List<UserResponse> findPageAfter(Instant createdAt, UUID id, int limit) {
+        return jdbc.query(PAGE_AFTER, USER_RESPONSE, OffsetDateTime.ofInstant(createdAt, ZoneOffset.UTC), id, limit);
+    }
+
+    /**
+     * Users whose email or full name starts with {@code prefix} (lower-cased), in (createdAt, id)
+     * order, after the given row when {@code afterId} is set.
+     */
+    @Transactional(readOnly = true)
+    public List<UserResponse> searchByPrefix(String prefix, Instant afterCreatedAt, UUID afterId, int limit) {
+        String pattern = escapeLike(prefix) + "%";
+        if (afterId == null) {
+            return jdbc.query(PREFIX_MATCH + "ORDER BY created_at, id LIMIT ?", USER_RESPONSE, pattern, pattern, limit);
+        }
+        return jdbc.query(PREFIX_MATCH + "AND (created_at, id) > (CAST(? AS timestamp), ?) ORDER BY created_at, id LIMIT ?",
+                USER_RESPONSE, pattern, pattern, OffsetDateTime.ofInstant(afterCreatedAt, ZoneOffset.UTC), afterId, limit);
+    }
+
+    /**
+     * Users whose email or full name is trigram-similar to {@code term} (lower-cased), best match
+     * first, after the given (score, id) when {@code afterId} is set.
+     */
+    @Transactional(readOnly = true)
+    public List<ScoredUser> searchFuzzy(String term, float afterScore, UUID afterId, int limit) {
+        RowMapper<ScoredUser> mapper = (rs, rowNum) -> new ScoredUser(USER_RESPONSE.mapRow(rs, rowNum), rs.getFloat("score"));
+        if (afterId == null) {
+            return jdbc.query(FUZZY_MATCH + "ORDER BY score DESC, id LIMIT ?", mapper, term, term, term, term, limit);
+        }
+        return jdbc.query(FUZZY_MATCH + """
+                        WHERE score < CAST(? AS real) OR (score = CAST(? AS real) AND id > ?)
+                        ORDER BY score DESC, id LIMIT ?
+                        """,
+                mapper, term, term, term, term, afterScore, afterScore, afterId, limit);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * One set-based round trip instead of an existsByEmail per row.
+     */
+    @Transactional(readOnly = true)
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        Set<String> existing = new HashSet<>();
+        if (emails.isEmpty()) {
+            return existing;
+        }
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT email FROM users WHERE email = ANY(?)");
+            Array array = con.createArrayOf("varchar", emails.toArray());
+            ps.setArray(1, array);
+            return ps;
+        }, rs -> {
+            existing.add(rs.getString(1));
+        });
+        return existing;
+    }
+
+    /**
+     * Single-statement create: no existsByEmail pre-check and no merge SELECT, and a concurrent
+     * insert of the same email cannot surface as a constraint-violation 500.
+     *
+     * @return true when the row was inserted, false when the email already exists
+     */
+    @Transactional
+    public boolean insertIfAbsent(User user) {
+        return jdbc.update(INSERT_IGNORING_CONFLICT, ps -> bindInsert(ps, user)) > 0;
+    }
+
+    /**
+     * Inserts all users as one JDBC batch in one transaction. Rows whose email already exists
+     * (including ones inserted concurrently since the caller checked) are skipped, not failed.
+     *
+     * @return per-row flag, true when that row was inserted
+     */
+    @Transactional
+    public boolean[] insertIgnoringConflicts(List<User> users) {
+        // Per-row update counts are what report conflicts, so do not enable reWriteBatchedInserts
+        // on the datasource: it collapses the batch and the driver then reports SUCCESS_NO_INFO.
+        int[] counts = jdbc.batchUpdate(INSERT_IGNORING_CONFLICT, users, users.size(), this::bindInsert)[0];
+
+        boolean[] inserted = new boolean[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            inserted[i] = counts[i] > 0;
+        }
+        return inserted;
+    }
+
+    public record ScoredUser(UserResponse user, float score) {}
+
+    private void bindInsert(PreparedStatement ps, User u) throws SQLException {
+        ps.setObject(1, u.getId());
+        ps.setString(2, u.getEmail());
+        ps.setString(3, u.getFullName());
+        // bound like Hibernate binds Instant (UTC timestamptz)
+        ps.setObject(4, OffsetDateTime.ofInstant(u.getCreatedAt(), ZoneOffset.UTC));
+        ps.setString(5, u.getPasswordHash());
+        ps.setString(6, u.getRole());
+    }
+}
@@ -1,7 +1,11 @@
 package com.nexia.core.repo;
 
+import com.nexia.core.api.dto.UserResponse;
 import com.nexia.core.domain.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -10,4 +14,14 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    /**
+     * Offset page straight into response DTOs: four columns, nothing enters the persistence context.
+     */
+    @Query(value = """
+            SELECT new com.nexia.core.api.dto.UserResponse(u.id, u.email, u.fullName, u.createdAt)
+            FROM User u
+            """,
+            countQuery = "SELECT count(u) FROM User u")
+    Page<UserResponse> findAllResponses(Pageable pageable);
 }
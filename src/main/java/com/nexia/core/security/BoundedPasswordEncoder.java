@@ -0,0 +1,138 @@
+package com.nexia.core.security;
+
+import com.nexia.core.api.error.ServiceBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder that runs hashing on a dedicated, size-limited pool.
+ * <p>
+ * Request threads only wait for the result, so at most {@code threads} hashes burn CPU at
+ * once and a login burst cannot monopolise the servlet pool. When {@code threads} hashes are
+ * running and {@code queueCapacity} more are waiting, the caller fails fast with
+ * {@link ServiceBusyException} (mapped to 503) instead of piling up.
+ * <p>
+ * Admission is counted with a semaphore held until the caller has its result, rather than by
+ * the executor queue: a zero-length hand-off queue would also reject while the only thread is
+ * idle but has not yet gone back to waiting for work.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final PasswordEncoder delegate;
+    private final int strength;
+    private final Semaphore admissions;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService monitoredPool;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this(new BCryptPasswordEncoder(strength), strength, threads, queueCapacity, meterRegistry);
+    }
+
+    BoundedPasswordEncoder(PasswordEncoder delegate, int strength, int threads, int queueCapacity,
+                           MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.strength = strength;
+        this.meterRegistry = meterRegistry;
+        this.admissions = new Semaphore(threads + queueCapacity);
+
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                // bounded by admissions
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.monitoredPool = ExecutorServiceMetrics.monitor(meterRegistry, pool, "bcrypt");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(timer("encode", strength), () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(timer("matches", costOf(encodedPassword)), () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Any hash whose cost differs from the configured strength is re-encoded on the next
+     * successful login (DaoAuthenticationProvider + DbUserDetailsService#updatePassword).
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = costOf(encodedPassword);
+        return cost > 0 && cost != strength;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+
+    private <T> T submit(Timer timer, Callable<T> work) {
+        if (!admissions.tryAcquire()) {
+            throw new ServiceBusyException("password hashing capacity exhausted, retry shortly");
+        }
+        try {
+            return monitoredPool.submit(() -> timer.recordCallable(work)).get();
+        } catch (RejectedExecutionException ex) {
+            // shut down
+            throw new ServiceBusyException("password hashing unavailable, retry shortly");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("password hashing interrupted");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("password hashing failed", ex.getCause());
+        } finally {
+            admissions.release();
+        }
+    }
+
+    private Timer timer(String operation, int cost) {
+        return timers.computeIfAbsent(operation + ":" + cost, k -> Timer.builder("nexia.password.hash")
+                .description("BCrypt hashing time per operation and cost factor")
+                .tag("operation", operation)
+                .tag("cost", String.valueOf(cost))
+                .register(meterRegistry));
+    }
+
+    private static int costOf(String encodedPassword) {
+        if (encodedPassword == null) {
+            return 0;
+        }
+        Matcher m = BCRYPT_COST.matcher(encodedPassword);
+        return m.find() ? Integer.parseInt(m.group(1)) : 0;
+    }
+}
@@ -0,0 +1,32 @@
+package com.nexia.core.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Principal built straight from verified JWT claims (no database lookup).
+ * Only carries what the token carries: id, email and role.
+ */
+public record ClaimsUser(UUID id, String email, String role) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        // Same convention as SecurityUser: ROLE_<ROLE_NAME>
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -1,24 +1,48 @@
 package com.nexia.core.security;
 
+import com.nexia.core.domain.User;
+import com.nexia.core.messaging.UserInvalidator;
+import com.nexia.core.repo.ReadOnlyRoutingDataSource;
+import com.nexia.core.repo.UserCache;
 import com.nexia.core.repo.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class DbUserDetailsService implements UserDetailsService {
+public class DbUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository users;
+    private final UserCache userCache;
+    private final UserInvalidator userInvalidator;
 
-    public DbUserDetailsService(UserRepository users) {
+    public DbUserDetailsService(UserRepository users, UserCache userCache, UserInvalidator userInvalidator) {
         this.users = users;
+        this.userCache = userCache;
+        this.userInvalidator = userInvalidator;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return users.findByEmail(email.trim())
+        return userCache.findByEmail(email.trim())
                 .map(SecurityUser::new)
                 .orElseThrow(() -> new UsernameNotFoundException("user not found"));
     }
+
+    /**
+     * Called by DaoAuthenticationProvider after a successful login whose stored hash was
+     * produced with a different BCrypt strength than the one currently configured.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        // Read-modify-write: load the row from the primary, never from a lagging replica
+        User user = ReadOnlyRoutingDataSource.onPrimary(() -> users.findByEmail(userDetails.getUsername().trim()))
+                .orElseThrow(() -> new UsernameNotFoundException("user not found"));
+        user.changePasswordHash(newPassword);
+        User saved = users.save(user);
+        userInvalidator.invalidate(saved.getId(), saved.getEmail(), false);
+        return new SecurityUser(saved);
+    }
 }
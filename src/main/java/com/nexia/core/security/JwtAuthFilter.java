@@ -1,10 +1,12 @@
 package com.nexia.core.security;
 
+import com.nexia.core.repo.UserCache;
 import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -15,16 +17,41 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.UUID;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    // Identity headers set by nexia-gateway after it verified the token (TokenRelayFilter)
+    static final String USER_ID_HEADER = "X-Nexia-User-Id";
+    static final String USER_EMAIL_HEADER = "X-Nexia-User-Email";
+    static final String USER_ROLE_HEADER = "X-Nexia-User-Role";
+    static final String TOKEN_ISSUED_AT_HEADER = "X-Nexia-Token-Issued-At";
+    static final String TOKEN_VERSION_HEADER = "X-Nexia-Token-Version";
+    static final String GATEWAY_SECRET_HEADER = "X-Nexia-Gateway-Secret";
+
     private final JwtService jwtService;
     private final DbUserDetailsService userDetailsService;
-
-    public JwtAuthFilter(JwtService jwtService, DbUserDetailsService userDetailsService) {
+    private final TokenRevocationRegistry revocations;
+    private final UserCache userCache;
+    private final boolean claimsOnly;
+    private final byte[] gatewaySecret;
+
+    public JwtAuthFilter(JwtService jwtService,
+                         DbUserDetailsService userDetailsService,
+                         TokenRevocationRegistry revocations,
+                         UserCache userCache,
+                         @Value("${nexia.security.jwt.claimsOnly:false}") boolean claimsOnly,
+                         @Value("${nexia.security.gateway.sharedSecret:}") String gatewaySecret) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.revocations = revocations;
+        this.userCache = userCache;
+        this.claimsOnly = claimsOnly;
+        this.gatewaySecret = gatewaySecret == null ? new byte[0] : gatewaySecret.trim().getBytes(StandardCharsets.UTF_8);
     }
 
     @Override
@@ -46,6 +73,17 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
+        if (isFromGateway(request)) {
+            // Token already verified at the edge: no JWT parsing here
+            try {
+                authenticate(request, fromGatewayHeaders(request));
+            } catch (RuntimeException ignored) {
+                // malformed identity headers: treat as unauthenticated and continue
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         String header = request.getHeader(HttpHeaders.AUTHORIZATION);
 
         if (header == null || header.isBlank()) {
@@ -72,19 +110,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             String email = claims.get("email", String.class);
 
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                authentication.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
+                UserDetails userDetails = claimsOnly
+                        ? fromClaims(claims, email)
+                        : userDetailsService.loadUserByUsername(email);
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                authenticate(request, userDetails);
             }
         } catch (Exception ignored) {
             // invalid or expired token: treat as unauthenticated and continue
@@ -92,4 +122,84 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(HttpServletRequest request, UserDetails userDetails) {
+        if (userDetails == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+        authentication.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    /**
+     * Identity headers are only honoured when a shared secret is configured and the request
+     * carries it; otherwise they are ignored and the Authorization header is used as usual.
+     */
+    private boolean isFromGateway(HttpServletRequest request) {
+        if (gatewaySecret.length == 0 || request.getHeader(USER_ID_HEADER) == null) {
+            return false;
+        }
+        String presented = request.getHeader(GATEWAY_SECRET_HEADER);
+        return presented != null
+                && MessageDigest.isEqual(gatewaySecret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Same principal as the token path would build: claims-only mode trusts the relayed
+     * claims (subject to revocation), otherwise the user is loaded by email.
+     */
+    private UserDetails fromGatewayHeaders(HttpServletRequest request) {
+        String email = request.getHeader(USER_EMAIL_HEADER);
+        if (email == null) {
+            return null;
+        }
+        if (!claimsOnly) {
+            return userDetailsService.loadUserByUsername(email);
+        }
+
+        UUID userId = UUID.fromString(request.getHeader(USER_ID_HEADER));
+        String role = request.getHeader(USER_ROLE_HEADER);
+        String iat = request.getHeader(TOKEN_ISSUED_AT_HEADER);
+        Instant issuedAt = iat == null ? null : Instant.ofEpochSecond(Long.parseLong(iat));
+        String version = request.getHeader(TOKEN_VERSION_HEADER);
+
+        return claimsUser(userId, email, role, issuedAt, version == null ? 0 : Integer.parseInt(version));
+    }
+
+    /**
+     * Claims-only mode: the token already carries id, email and role, so build the
+     * principal from it instead of loading the full user by email.
+     */
+    private UserDetails fromClaims(Claims claims, String email) {
+        UUID userId = jwtService.subjectAsUserId(claims);
+        String role = claims.get("role", String.class);
+        Instant issuedAt = claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant();
+
+        return claimsUser(userId, email, role, issuedAt, jwtService.tokenVersion(claims));
+    }
+
+    /**
+     * Tokens of users that were deleted or had their role changed are rejected: right away on
+     * this replica through the revocation registry, and on every replica and across restarts
+     * because the token's version must still match the user's (through {@link UserCache}, so a
+     * memory hit in the common case).
+     */
+    private UserDetails claimsUser(UUID userId, String email, String role, Instant issuedAt, int tokenVersion) {
+        if (role == null || revocations.isRevoked(userId, issuedAt)) {
+            return null;
+        }
+        boolean current = userCache.findById(userId)
+                .filter(user -> user.getTokenVersion() == tokenVersion)
+                .isPresent();
+        return current ? new ClaimsUser(userId, email, role) : null;
+    }
 }
@@ -1,37 +1,80 @@
 package com.nexia.core.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.nexia.core.domain.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
+    static final String TOKEN_VERSION_CLAIM = "ver";
+
     private final SecretKey key;
     private final String issuer;
     private final long ttlSeconds;
+    private final Clock clock;
+
+    // Thread-safe and immutable once built: reuse instead of rebuilding per call
+    private final JwtParser parser;
 
+    // Verified claims keyed by token digest; each entry expires at the token's own exp
+    private final Cache<String, Claims> verified;
+
+    @Autowired
     public JwtService(
             @Value("${nexia.security.jwt.secret}") String secret,
             @Value("${nexia.security.jwt.issuer:nexia}") String issuer,
-            @Value("${nexia.security.jwt.ttlSeconds:3600}") long ttlSeconds
+            @Value("${nexia.security.jwt.ttlSeconds:3600}") long ttlSeconds,
+            @Value("${nexia.security.jwt.cacheSize:10000}") long cacheSize,
+            MeterRegistry meterRegistry
     ) {
+        this(secret, issuer, ttlSeconds, cacheSize, meterRegistry, Clock.systemUTC());
+    }
+
+    JwtService(String secret, String issuer, long ttlSeconds, long cacheSize, MeterRegistry meterRegistry,
+               Clock clock) {
         if (secret == null || secret.trim().length() < 32) {
             throw new IllegalStateException("nexia.security.jwt.secret must be at least 32 characters");
         }
         this.key = Keys.hmacShaKeyFor(secret.trim().getBytes(StandardCharsets.UTF_8));
         this.issuer = issuer;
         this.ttlSeconds = ttlSeconds;
+        this.clock = clock;
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .clock(() -> Date.from(clock.instant()))
+                .build();
+
+        // Entries expire by the same wall clock the exp claim is checked against
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .expireAfter(new UntilTokenExpiry(clock))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt.verified");
     }
 
     public long ttlSeconds() {
@@ -39,7 +82,7 @@ public class JwtService {
     }
 
     public String generate(User user) {
-        Instant now = Instant.now();
+        Instant now = clock.instant();
         Instant exp = now.plusSeconds(ttlSeconds);
 
         return Jwts.builder()
@@ -47,7 +90,8 @@ public class JwtService {
                 .subject(user.getId().toString())
                 .claims(Map.of(
                         "email", user.getEmail(),
-                        "role", user.getRole()
+                        "role", user.getRole(),
+                        TOKEN_VERSION_CLAIM, user.getTokenVersion()
                 ))
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(exp))
@@ -56,14 +100,72 @@ public class JwtService {
     }
 
     public Claims parse(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        String digest = digest(token);
+
+        Claims cached = verified.getIfPresent(digest);
+        // Caffeine drops expired entries lazily: never trust one past its exp
+        if (cached != null && cached.getExpiration() != null
+                && cached.getExpiration().toInstant().isAfter(clock.instant())) {
+            return cached;
+        }
+
+        // Throws on bad signature / expired token; failures are never cached
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        verified.put(digest, claims);
+        return claims;
     }
 
     public UUID subjectAsUserId(Claims claims) {
         return UUID.fromString(claims.getSubject());
     }
+
+    /**
+     * The user's token version when the token was issued; tokens from before versions existed count as 0.
+     */
+    public int tokenVersion(Claims claims) {
+        Integer version = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * SHA-256 of the raw token: keeps bearer tokens themselves out of the heap-resident cache.
+     */
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        private final Clock clock;
+
+        UntilTokenExpiry(Clock clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date exp = claims.getExpiration();
+            if (exp == null) {
+                return 0L;
+            }
+            long remainingMillis = exp.getTime() - clock.millis();
+            return Math.max(0L, remainingMillis) * 1_000_000L;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,55 @@
+package com.nexia.core.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks users whose already-issued tokens must stop working (deletion, role change).
+ * Any token for a revoked user issued at or before the revocation instant is rejected.
+ * Entries are dropped once every token they could affect has expired anyway.
+ * <p>
+ * Local to this JVM and lost on restart: it only closes the gap until the cached user is
+ * reloaded. The durable check is the user's persisted token version (see {@link JwtAuthFilter}).
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private final Map<UUID, Instant> revokedAt = new ConcurrentHashMap<>();
+    private final long ttlSeconds;
+    private final Clock clock;
+
+    @Autowired
+    public TokenRevocationRegistry(@Value("${nexia.security.jwt.ttlSeconds:3600}") long ttlSeconds) {
+        this(ttlSeconds, Clock.systemUTC());
+    }
+
+    TokenRevocationRegistry(long ttlSeconds, Clock clock) {
+        this.ttlSeconds = ttlSeconds;
+        this.clock = clock;
+    }
+
+    public void revoke(UUID userId) {
+        Instant now = clock.instant();
+        revokedAt.put(userId, now);
+
+        // Revocations are rare, so purge lazily here instead of scheduling a job
+        Instant horizon = now.minusSeconds(ttlSeconds);
+        revokedAt.values().removeIf(at -> at.isBefore(horizon));
+    }
+
+    public boolean isRevoked(UUID userId, Instant issuedAt) {
+        Instant at = revokedAt.get(userId);
+        if (at == null) {
+            return false;
+        }
+        // iat has second precision: treat a token from the same second as revoked
+        return issuedAt == null || !issuedAt.isAfter(at);
+    }
+}
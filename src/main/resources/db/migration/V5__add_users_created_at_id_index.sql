@@ -0,0 +1,3 @@
+-- Backs keyset pagination on GET /api/v1/users/cursor: seek on (created_at, id), no OFFSET, no count(*)
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id
+    ON users (created_at, id);
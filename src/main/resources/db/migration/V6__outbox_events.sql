@@ -0,0 +1,14 @@
+-- Transactional outbox: events are written in the same transaction as the data they describe
+-- and published to RabbitMQ by OutboxRelay. Published rows are deleted, so the table only
+-- holds the backlog.
+create table if not exists outbox_events (
+      id uuid primary key,
+      exchange varchar(255) not null,
+      routing_key varchar(255) not null,
+      event_type varchar(255) not null,
+      payload jsonb not null,
+      created_at timestamptz not null default now()
+);
+
+create index if not exists idx_outbox_events_created_at
+    on outbox_events (created_at);
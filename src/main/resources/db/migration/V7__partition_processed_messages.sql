@@ -0,0 +1,47 @@
+-- Time-windowed dedup store: processed_messages becomes range-partitioned by occurred_at,
+-- one partition per UTC day. ProcessedMessageRetentionJob creates upcoming partitions and
+-- drops the ones older than nexia.messaging.dedup.window, so the table and its index stay
+-- the size of the window instead of growing forever.
+--
+-- The primary key must contain the partition key. occurred_at comes from the event itself, so a
+-- redelivery carries the same (event_id, occurred_at) and UserEventListener's
+-- INSERT ... ON CONFLICT DO NOTHING dedups it even when two consumers race on the same event.
+
+alter table processed_messages rename to processed_messages_legacy;
+
+create table processed_messages (
+      event_id uuid not null,
+      occurred_at timestamptz not null,
+      processed_at timestamptz not null default now(),
+      primary key (event_id, occurred_at)
+) partition by range (occurred_at);
+
+-- Safety net for rows outside the maintained range (late or clock-skewed events); normally empty.
+-- ProcessedMessageRetentionJob moves a day's rows out of it when it creates that day's partition
+create table processed_messages_default partition of processed_messages default;
+
+do $$
+declare
+    d date;
+begin
+    for d in
+        select generate_series((now() at time zone 'UTC')::date - 7,
+                               (now() at time zone 'UTC')::date + 2,
+                               interval '1 day')::date
+    loop
+        execute format(
+            'create table if not exists %I partition of processed_messages for values from (%L) to (%L)',
+            'processed_messages_' || to_char(d, 'YYYYMMDD'),
+            d::text || ' 00:00:00+00',
+            (d + 1)::text || ' 00:00:00+00');
+    end loop;
+end $$;
+
+-- Carry over the default 7-day window; older ids are past retention anyway. The legacy table
+-- never stored occurred_at, processed_at is the closest value it has
+insert into processed_messages (event_id, occurred_at, processed_at)
+select event_id, processed_at, processed_at
+from processed_messages_legacy
+where processed_at >= (now() at time zone 'UTC')::date - 7;
+
+drop table processed_messages_legacy;
@@ -0,0 +1,13 @@
+-- Backs GET /api/v1/users/search (case-insensitive, on lower(...) expressions)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- mode=prefix on email: lower(email) LIKE 'abc%' as a btree range scan (any collation)
+CREATE INDEX IF NOT EXISTS idx_users_email_lower_prefix
+    ON users (lower(email) text_pattern_ops);
+
+-- mode=fuzzy (similarity operator %) on both columns, and name prefixes (LIKE is trigram-indexable too)
+CREATE INDEX IF NOT EXISTS idx_users_email_lower_trgm
+    ON users USING gin (lower(email) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_users_full_name_lower_trgm
+    ON users USING gin (lower(full_name) gin_trgm_ops);
@@ -0,0 +1,19 @@
+-- Persisted token revocation: every JWT carries the token_version it was issued under
+-- (claim "ver"), and claims-only authentication rejects tokens whose version is no longer
+-- current. Deleting the user revokes through the missing row; a role change bumps the version.
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
+
+-- In the database rather than in the application, so role changes made with plain SQL count too
+CREATE OR REPLACE FUNCTION users_bump_token_version() RETURNS trigger AS $$
+BEGIN
+    NEW.token_version := OLD.token_version + 1;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_users_role_change
+    BEFORE UPDATE OF role ON users
+    FOR EACH ROW
+    WHEN (OLD.role IS DISTINCT FROM NEW.role)
+EXECUTE FUNCTION users_bump_token_version();
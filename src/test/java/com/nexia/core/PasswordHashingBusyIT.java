@@ -0,0 +1,92 @@
+package com.nexia.core;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * One hashing thread and no queue: a login arriving while another one is hashing is turned
+ * away with 503 + Retry-After instead of a credentials failure or a wait.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PasswordHashingBusyIT {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("nexia")
+            .withUsername("nexia")
+            .withPassword("nexia");
+
+    @Container
+    static final RabbitMQContainer rabbit = new RabbitMQContainer("rabbitmq:3.13-management");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+
+        registry.add("nexia.security.jwt.secret", () -> "change-me-change-me-change-me-change-me");
+        registry.add("nexia.security.jwt.issuer", () -> "nexia");
+        registry.add("nexia.security.gateway.sharedSecret", () -> "it-gateway-secret");
+
+        // A cost-14 hash takes around a second, long enough to overlap a second login
+        registry.add("nexia.security.password.bcryptStrength", () -> "14");
+        registry.add("nexia.security.password.hashThreads", () -> "1");
+        registry.add("nexia.security.password.hashQueueCapacity", () -> "0");
+
+        registry.add("spring.rabbitmq.host", rabbit::getHost);
+        registry.add("spring.rabbitmq.port", () -> rabbit.getMappedPort(5672));
+        registry.add("spring.rabbitmq.username", () -> "guest");
+        registry.add("spring.rabbitmq.password", () -> "guest");
+    }
+
+    @LocalServerPort
+    int port;
+
+    private final TestRestTemplate rest = new TestRestTemplate();
+
+    private ResponseEntity<String> login(String email) {
+        HttpHeaders h = new HttpHeaders();
+        h.setContentType(MediaType.APPLICATION_JSON);
+        String body = "{\"email\":\"%s\",\"password\":\"Password123!\"}".formatted(email);
+        return rest.exchange("http://localhost:" + port + "/api/auth/login", HttpMethod.POST,
+                new HttpEntity<>(body, h), String.class);
+    }
+
+    @Test
+    void loginWhileTheOnlyHashingThreadIsBusy_returns503WithRetryAfter() throws Exception {
+        ResponseEntity<String> rejected = null;
+        // Retry a few rounds in case the first login has not reached the pool yet
+        for (int round = 0; round < 5 && rejected == null; round++) {
+            CompletableFuture<ResponseEntity<String>> slow =
+                    CompletableFuture.supplyAsync(() -> login("slow-" + System.nanoTime() + "@example.com"));
+            Thread.sleep(300);
+
+            ResponseEntity<String> concurrent = login("busy@example.com");
+            if (concurrent.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE) {
+                rejected = concurrent;
+            }
+            // The login holding the thread still gets a credentials answer
+            assertThat(slow.get().getStatusCode().is4xxClientError()).isTrue();
+        }
+
+        assertThat(rejected).as("a login must be turned away while the pool is full").isNotNull();
+        assertThat(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(rejected.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON);
+        assertThat(rejected.getBody()).contains("service-busy");
+    }
+}
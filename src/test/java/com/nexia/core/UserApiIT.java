@@ -18,8 +18,13 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -48,6 +53,7 @@ class UserApiIT {
         registry.add("nexia.security.jwt.secret", () -> "change-me-change-me-change-me-change-me");
         registry.add("nexia.security.jwt.issuer", () -> "nexia");
         registry.add("nexia.security.jwt.ttlSeconds", () -> "3600");
+        registry.add("nexia.security.gateway.sharedSecret", () -> "it-gateway-secret");
 
         // RabbitMQ (Testcontainers)
         registry.add("spring.rabbitmq.host", rabbit::getHost);
@@ -212,4 +218,297 @@ class UserApiIT {
         assertThat(getAfterDelete.getBody()).containsKey("type");
         assertThat(getAfterDelete.getBody()).containsEntry("status", 404);
     }
+
+    @Test
+    void cursorList_walksAllPagesWithoutDuplicates() {
+        HttpHeaders headers = adminAuthHeaders();
+
+        for (int i = 0; i < 3; i++) {
+            HttpEntity<String> create = new HttpEntity<>(
+                    "{\"email\":\"cursor" + i + "@example.com\",\"fullName\":\"Cursor User\"}",
+                    headers
+            );
+            ResponseEntity<Map<String, Object>> created =
+                    rest.exchange(baseUrl() + API_BASE, HttpMethod.POST, create,
+                            new ParameterizedTypeReference<>() {});
+            assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        }
+
+        HttpEntity<Void> req = new HttpEntity<>(headers);
+        List<Object> seenEmails = new ArrayList<>();
+        String cursor = "";
+
+        do {
+            ResponseEntity<Map<String, Object>> page =
+                    rest.exchange(baseUrl() + API_BASE + "/cursor?size=2&cursor=" + cursor, HttpMethod.GET, req,
+                            new ParameterizedTypeReference<>() {});
+
+            assertThat(page.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(page.getBody()).isNotNull();
+
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> items = (List<Map<String, Object>>) page.getBody().get("items");
+            assertThat(items).hasSizeLessThanOrEqualTo(2);
+            items.forEach(item -> seenEmails.add(item.get("email")));
+
+            Object next = page.getBody().get("nextCursor");
+            cursor = next == null ? null : String.valueOf(next);
+        } while (cursor != null);
+
+        assertThat(seenEmails).doesNotHaveDuplicates();
+        assertThat(seenEmails).contains("cursor0@example.com", "cursor1@example.com", "cursor2@example.com");
+    }
+
+    @Test
+    void cursorList_rejectsGarbageCursor() {
+        HttpEntity<Void> req = new HttpEntity<>(adminAuthHeaders());
+
+        ResponseEntity<Map<String, Object>> page =
+                rest.exchange(baseUrl() + API_BASE + "/cursor?cursor=not-a-cursor", HttpMethod.GET, req,
+                        new ParameterizedTypeReference<>() {});
+
+        assertThat(page.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(page.getBody()).containsEntry("status", 400);
+    }
+
+    @Test
+    void search_matchesPrefixCaseInsensitivelyAndFuzzyByRelevance() {
+        HttpHeaders headers = adminAuthHeaders();
+
+        for (String name : List.of("alice", "alina", "bob")) {
+            HttpEntity<String> create = new HttpEntity<>(
+                    "{\"email\":\"search." + name + "@example.com\",\"fullName\":\"Searchable " + name + "\"}",
+                    headers
+            );
+            ResponseEntity<Map<String, Object>> created =
+                    rest.exchange(baseUrl() + API_BASE, HttpMethod.POST, create,
+                            new ParameterizedTypeReference<>() {});
+            assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        }
+
+        HttpEntity<Void> req = new HttpEntity<>(headers);
+        List<Object> seenEmails = new ArrayList<>();
+        String cursor = "";
+
+        do {
+            ResponseEntity<Map<String, Object>> page =
+                    rest.exchange(baseUrl() + API_BASE + "/search?q=SEARCH.AL&size=1&cursor=" + cursor, HttpMethod.GET, req,
+                            new ParameterizedTypeReference<>() {});
+
+            assertThat(page.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(page.getBody()).isNotNull();
+
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> items = (List<Map<String, Object>>) page.getBody().get("items");
+            items.forEach(item -> seenEmails.add(item.get("email")));
+
+            Object next = page.getBody().get("nextCursor");
+            cursor = next == null ? null : String.valueOf(next);
+        } while (cursor != null);
+
+        assertThat(seenEmails).containsExactlyInAnyOrder("search.alice@example.com", "search.alina@example.com");
+
+        ResponseEntity<Map<String, Object>> fuzzy =
+                rest.exchange(baseUrl() + API_BASE + "/search?mode=fuzzy&q=search.alise", HttpMethod.GET, req,
+                        new ParameterizedTypeReference<>() {});
+
+        assertThat(fuzzy.getStatusCode()).isEqualTo(HttpStatus.OK);
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> hits = (List<Map<String, Object>>) fuzzy.getBody().get("items");
+        assertThat(hits).isNotEmpty();
+        assertThat(hits.get(0)).containsEntry("email", "search.alice@example.com");
+    }
+
+    @Test
+    void search_rejectsUnknownModeAndBadTerms() {
+        HttpEntity<Void> req = new HttpEntity<>(adminAuthHeaders());
+
+        for (String query : List.of("q=alice&mode=regex", "q=al&mode=fuzzy", "q=" + "x".repeat(101))) {
+            ResponseEntity<Map<String, Object>> page =
+                    rest.exchange(baseUrl() + API_BASE + "/search?" + query, HttpMethod.GET, req,
+                            new ParameterizedTypeReference<>() {});
+
+            assertThat(page.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(page.getBody()).containsEntry("status", 400);
+        }
+    }
+
+    @Test
+    void export_streamsNdjsonAndCsv() {
+        HttpHeaders headers = adminAuthHeaders();
+
+        HttpEntity<String> create = new HttpEntity<>(
+                "{\"email\":\"export@example.com\",\"fullName\":\"Export, User\"}",
+                headers
+        );
+        rest.exchange(baseUrl() + API_BASE, HttpMethod.POST, create, new ParameterizedTypeReference<Map<String, Object>>() {});
+
+        HttpEntity<Void> req = new HttpEntity<>(headers);
+
+        ResponseEntity<String> ndjson =
+                rest.exchange(baseUrl() + API_BASE + "/export", HttpMethod.GET, req, String.class);
+
+        assertThat(ndjson.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(ndjson.getHeaders().getContentType()).isNotNull();
+        assertThat(ndjson.getHeaders().getContentType().toString()).startsWith("application/x-ndjson");
+        assertThat(ndjson.getBody()).isNotNull();
+        assertThat(ndjson.getBody().lines())
+                .anyMatch(line -> line.contains("\"email\":\"export@example.com\""));
+
+        ResponseEntity<String> csv =
+                rest.exchange(baseUrl() + API_BASE + "/export?format=csv", HttpMethod.GET, req, String.class);
+
+        assertThat(csv.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(csv.getBody()).startsWith("id,email,fullName,createdAt\n");
+        assertThat(csv.getBody()).contains(",export@example.com,\"Export, User\",");
+    }
+
+    @Test
+    void bulkCreate_reportsPerRowErrors() {
+        HttpHeaders headers = adminAuthHeaders();
+
+        HttpEntity<String> bulk = new HttpEntity<>("""
+                [
+                  {"email":"bulk1@example.com","fullName":"Bulk One"},
+                  {"email":"admin.it@example.com","fullName":"Already There"},
+                  {"email":"not-an-email","fullName":"Invalid"},
+                  {"email":"bulk1@example.com","fullName":"Same Batch Duplicate"}
+                ]
+                """, headers);
+
+        ResponseEntity<Map<String, Object>> result =
+                rest.exchange(baseUrl() + API_BASE + "/bulk", HttpMethod.POST, bulk,
+                        new ParameterizedTypeReference<>() {});
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isNotNull();
+        assertThat(result.getBody()).containsEntry("received", 4);
+        assertThat(result.getBody()).containsEntry("created", 1);
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> errors = (List<Map<String, Object>>) result.getBody().get("errors");
+        assertThat(errors).extracting(e -> e.get("index")).containsExactly(1, 2, 3);
+
+        ResponseEntity<Map<String, Object>> fetched =
+                rest.exchange(baseUrl() + API_BASE + "/by-email?email=bulk1@example.com", HttpMethod.GET,
+                        new HttpEntity<>(headers), new ParameterizedTypeReference<>() {});
+
+        assertThat(fetched.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(fetched.getBody()).containsEntry("fullName", "Bulk One");
+    }
+
+    @Test
+    void concurrentRegistration_createsOnceAndConflictsOtherwise() {
+        HttpHeaders h = new HttpHeaders();
+        h.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<String> register = new HttpEntity<>("""
+                {
+                  "email":"race@example.com",
+                  "fullName":"Race User",
+                  "password":"Password123!"
+                }
+                """, h);
+
+        List<HttpStatus> statuses;
+        try (ExecutorService pool = Executors.newFixedThreadPool(5)) {
+            List<CompletableFuture<HttpStatus>> calls = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                calls.add(CompletableFuture.supplyAsync(() -> HttpStatus.valueOf(
+                        rest.exchange(baseUrl() + "/api/auth/register", HttpMethod.POST, register, String.class)
+                                .getStatusCode().value()), pool));
+            }
+            statuses = calls.stream().map(CompletableFuture::join).toList();
+        }
+
+        assertThat(statuses).containsOnly(HttpStatus.CREATED, HttpStatus.CONFLICT);
+        assertThat(statuses).filteredOn(s -> s == HttpStatus.CREATED).hasSize(1);
+    }
+
+    @Test
+    void gatewayIdentityHeaders_authenticateOnlyWithSharedSecret() {
+        String email = "admin.it@example.com";
+        ensureAdminExists(email, "Password123!");
+        User admin = userRepository.findByEmail(email).orElseThrow();
+
+        HttpHeaders trusted = new HttpHeaders();
+        trusted.set("X-Nexia-User-Id", admin.getId().toString());
+        trusted.set("X-Nexia-User-Email", email);
+        trusted.set("X-Nexia-User-Role", "ADMIN");
+        trusted.set("X-Nexia-Token-Issued-At", Long.toString(Instant.now().getEpochSecond()));
+        trusted.set("X-Nexia-Gateway-Secret", "it-gateway-secret");
+
+        ResponseEntity<Map<String, Object>> me =
+                rest.exchange(baseUrl() + API_BASE + "/me", HttpMethod.GET, new HttpEntity<>(trusted),
+                        new ParameterizedTypeReference<>() {});
+        assertThat(me.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(me.getBody()).containsEntry("email", email);
+
+        HttpHeaders spoofed = new HttpHeaders();
+        spoofed.putAll(trusted);
+        spoofed.set("X-Nexia-Gateway-Secret", "guessed");
+
+        ResponseEntity<String> rejected =
+                rest.exchange(baseUrl() + API_BASE + "/me", HttpMethod.GET, new HttpEntity<>(spoofed), String.class);
+        assertThat(rejected.getStatusCode().is4xxClientError()).isTrue();
+    }
+
+    @Test
+    void me_returnsEtagAndNotModifiedOnMatch() {
+        HttpHeaders headers = adminAuthHeaders();
+
+        ResponseEntity<String> first =
+                rest.exchange(baseUrl() + API_BASE + "/me", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getHeaders().getETag()).isNotBlank();
+        assertThat(first.getHeaders().getCacheControl()).contains("private");
+
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.putAll(headers);
+        conditional.setIfNoneMatch(first.getHeaders().getETag());
+
+        ResponseEntity<String> second =
+                rest.exchange(baseUrl() + API_BASE + "/me", HttpMethod.GET, new HttpEntity<>(conditional), String.class);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(second.getBody()).isNull();
+    }
+
+    @Test
+    void loginAndMe_returnsTokenAndProfileInOneCall() {
+        String email = "login.and.me@example.com";
+        ensureAdminExists(email, "Password123!");
+
+        HttpHeaders h = new HttpHeaders();
+        h.setContentType(MediaType.APPLICATION_JSON);
+        String body = """
+                { "email":"%s", "password":"Password123!" }
+                """.formatted(email);
+
+        ResponseEntity<Map<String, Object>> res =
+                rest.exchange(baseUrl() + "/api/auth/login-and-me", HttpMethod.POST, new HttpEntity<>(body, h),
+                        new ParameterizedTypeReference<>() {});
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(res.getBody()).isNotNull();
+        assertThat(res.getBody().get("accessToken")).isNotNull();
+        assertThat(res.getBody().get("tokenType")).isEqualTo("Bearer");
+        assertThat(res.getBody().get("me")).isInstanceOf(Map.class);
+        Map<?, ?> me = (Map<?, ?>) res.getBody().get("me");
+        assertThat(me.get("email")).isEqualTo(email);
+        assertThat(me.containsKey("passwordHash")).isFalse();
+
+        // The token is usable right away
+        HttpHeaders auth = new HttpHeaders();
+        auth.setBearerAuth(String.valueOf(res.getBody().get("accessToken")));
+        ResponseEntity<String> profile =
+                rest.exchange(baseUrl() + API_BASE + "/me", HttpMethod.GET, new HttpEntity<>(auth), String.class);
+        assertThat(profile.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        String wrong = """
+                { "email":"%s", "password":"WrongPassword1!" }
+                """.formatted(email);
+        ResponseEntity<String> rejected =
+                rest.exchange(baseUrl() + "/api/auth/login-and-me", HttpMethod.POST, new HttpEntity<>(wrong, h),
+                        String.class);
+        assertThat(rejected.getStatusCode().is4xxClientError()).isTrue();
+    }
 }
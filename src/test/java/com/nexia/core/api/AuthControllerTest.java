@@ -0,0 +1,56 @@
+package com.nexia.core.api;
+
+import com.nexia.core.api.dto.LoginRequest;
+import com.nexia.core.api.error.ServiceBusyException;
+import com.nexia.core.messaging.UserEventPublisher;
+import com.nexia.core.messaging.UserInvalidator;
+import com.nexia.core.repo.UserJdbcRepository;
+import com.nexia.core.repo.UserRepository;
+import com.nexia.core.security.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthControllerTest {
+
+    private final AuthenticationManager authenticationManager = mock(AuthenticationManager.class);
+    private final AuthController controller = new AuthController(
+            mock(UserRepository.class), mock(UserJdbcRepository.class), mock(PasswordEncoder.class),
+            authenticationManager, mock(JwtService.class), mock(UserEventPublisher.class),
+            mock(UserInvalidator.class), mock(TransactionTemplate.class), false);
+
+    private final LoginRequest request = new LoginRequest("ada@nexia.dev", "secret");
+
+    @Test
+    void busyHashingPoolIsNotReportedAsBadCredentials() {
+        ServiceBusyException busy = new ServiceBusyException("password hashing capacity exhausted, retry shortly");
+        when(authenticationManager.authenticate(any())).thenThrow(busy);
+
+        assertThatThrownBy(() -> controller.login(request)).isSameAs(busy);
+    }
+
+    @Test
+    void busyHashingPoolWrappedBySpringSecurityIsUnwrapped() {
+        ServiceBusyException busy = new ServiceBusyException("password hashing capacity exhausted, retry shortly");
+        when(authenticationManager.authenticate(any()))
+                .thenThrow(new InternalAuthenticationServiceException(busy.getMessage(), busy));
+
+        assertThatThrownBy(() -> controller.loginAndMe(request)).isSameAs(busy);
+    }
+
+    @Test
+    void otherFailuresBecomeBadCredentials() {
+        when(authenticationManager.authenticate(any()))
+                .thenThrow(new InternalAuthenticationServiceException("db down", new IllegalStateException()));
+
+        assertThatThrownBy(() -> controller.login(request)).isInstanceOf(BadCredentialsException.class);
+    }
+}
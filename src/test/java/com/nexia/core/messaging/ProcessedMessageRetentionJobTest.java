@@ -0,0 +1,44 @@
+package com.nexia.core.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessedMessageRetentionJobTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    @Test
+    void createsTodayAndTheDaysAheadThatAreMissing() {
+        List<LocalDate> existing = List.of(TODAY.minusDays(1), TODAY, TODAY.plusDays(2));
+
+        // Across a month end in a non-leap year
+        assertThat(ProcessedMessageRetentionJob.missingDays(TODAY.minusDays(1), 2, existing))
+                .containsExactly(TODAY.plusDays(1));
+        assertThat(ProcessedMessageRetentionJob.missingDays(TODAY, 3, existing))
+                .containsExactly(TODAY.plusDays(1), TODAY.plusDays(3));
+        assertThat(ProcessedMessageRetentionJob.missingDays(TODAY, 0, List.of()))
+                .containsExactly(TODAY);
+    }
+
+    @Test
+    void dropsOnlyDaysEntirelyBeforeTheCutoff() {
+        List<LocalDate> existing = List.of(
+                LocalDate.of(2026, 2, 21), LocalDate.of(2026, 2, 22), LocalDate.of(2026, 2, 20), TODAY);
+
+        // 7-day window at 2026-03-01T10:00Z: the 21st ends at 22nd 00:00, before the cutoff
+        Instant cutoff = Instant.parse("2026-02-22T10:00:00Z");
+        assertThat(ProcessedMessageRetentionJob.expiredDays(existing, cutoff))
+                .containsExactly(LocalDate.of(2026, 2, 20), LocalDate.of(2026, 2, 21));
+
+        // A partition ending exactly at the cutoff holds nothing inside the window
+        assertThat(ProcessedMessageRetentionJob.expiredDays(existing, Instant.parse("2026-02-22T00:00:00Z")))
+                .containsExactly(LocalDate.of(2026, 2, 20), LocalDate.of(2026, 2, 21));
+        assertThat(ProcessedMessageRetentionJob.expiredDays(existing, Instant.parse("2026-02-21T23:59:59Z")))
+                .containsExactly(LocalDate.of(2026, 2, 20));
+    }
+}
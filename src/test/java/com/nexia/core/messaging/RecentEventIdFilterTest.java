@@ -0,0 +1,108 @@
+package com.nexia.core.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentEventIdFilterTest {
+
+    private static final Duration WINDOW = Duration.ofDays(7);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-01T00:00:00Z"));
+    private final RecentEventIdFilter filter = new RecentEventIdFilter(null, true, WINDOW, 10_000, 0.01, clock);
+
+    @Test
+    void addedIdsAreAlwaysReported() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            filter.put(id);
+        }
+        assertThat(ids).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void falsePositivesStayNearTheConfiguredRate() {
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID());
+        }
+        long falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+        // 1% expected; 3% leaves room for randomness
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void idStaysCoveredForAtLeastOneWindowAfterRotation() {
+        UUID id = UUID.randomUUID();
+        filter.put(id);
+
+        // The next put after a full window rotates: the id moves to the previous generation
+        clock.advance(WINDOW);
+        filter.put(UUID.randomUUID());
+        assertThat(filter.mightContain(id)).isTrue();
+
+        // Before the second window ends nothing rotates, however many puts happen
+        clock.advance(WINDOW.minusSeconds(1));
+        filter.put(UUID.randomUUID());
+        assertThat(filter.mightContain(id)).isTrue();
+
+        // The second rotation discards the generation holding it
+        clock.advance(Duration.ofSeconds(1));
+        filter.put(UUID.randomUUID());
+        assertThat(filter.mightContain(id)).isFalse();
+    }
+
+    @Test
+    void disabledFilterStaysEmptyAndInactive() {
+        RecentEventIdFilter disabled = new RecentEventIdFilter(null, false, WINDOW, 10_000, 0.01, clock);
+        UUID id = UUID.randomUUID();
+        disabled.put(id);
+        disabled.seed();
+
+        assertThat(disabled.isActive()).isFalse();
+        assertThat(disabled.mightContain(id)).isFalse();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.nexia.core.messaging;
+
+import com.nexia.core.domain.User;
+import com.nexia.core.messaging.events.UserInvalidatedEvent;
+import com.nexia.core.repo.UserCache;
+import com.nexia.core.repo.UserRepository;
+import com.nexia.core.security.TokenRevocationRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * An invalidation broadcast by another replica must have the same local effect as one made here.
+ */
+class UserInvalidationListenerTest {
+
+    private final UserRepository users = mock(UserRepository.class);
+    private final UserEventPublisher publisher = mock(UserEventPublisher.class);
+    private final UserCache cache = new UserCache(users, 100, 60, false, 0, new SimpleMeterRegistry());
+    private final TokenRevocationRegistry revocations = new TokenRevocationRegistry(3600);
+    private final UserInvalidator invalidator = new UserInvalidator(cache, revocations, publisher);
+    private final UserInvalidationListener listener = new UserInvalidationListener(invalidator);
+
+    private final User user = new User(UUID.randomUUID(), "ada@nexia.dev", "Ada", Instant.now(), "hash", "USER", 0);
+
+    @Test
+    void remoteInvalidationEvictsTheCachedUser() {
+        when(users.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        cache.findByEmail(user.getEmail());
+
+        listener.handleUserInvalidated(UserInvalidatedEvent.of(user.getId(), user.getEmail(), false));
+        cache.findByEmail(user.getEmail());
+
+        verify(users, times(2)).findByEmail(user.getEmail());
+        assertThat(revocations.isRevoked(user.getId(), Instant.now().minusSeconds(5))).isFalse();
+        // Applying a received event must not broadcast it again
+        verify(publisher, never()).publishUserInvalidated(any());
+    }
+
+    @Test
+    void remoteDeletionRevokesTokensIssuedBeforeIt() {
+        listener.handleUserInvalidated(UserInvalidatedEvent.of(user.getId(), null, true));
+
+        assertThat(revocations.isRevoked(user.getId(), Instant.now().minusSeconds(5))).isTrue();
+    }
+
+    @Test
+    void localInvalidationIsAppliedAndBroadcast() {
+        when(users.findById(user.getId())).thenReturn(Optional.of(user));
+        cache.findById(user.getId());
+
+        invalidator.invalidate(user.getId(), null, false);
+        cache.findById(user.getId());
+
+        verify(users, times(2)).findById(user.getId());
+        verify(publisher).publishUserInvalidated(any());
+    }
+}
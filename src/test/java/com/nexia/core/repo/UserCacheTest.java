@@ -0,0 +1,123 @@
+package com.nexia.core.repo;
+
+import com.nexia.core.domain.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserCacheTest {
+
+    private final UserRepository users = mock(UserRepository.class);
+    private final User user = new User(UUID.randomUUID(), "ada@nexia.dev", "Ada", Instant.now(), "hash", "USER", 0);
+
+    private UserCache cache(boolean replicaEnabled) {
+        return new UserCache(users, 100, 60, replicaEnabled, 5000, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void servesRepeatedLookupsFromMemoryByIdAndByEmail() {
+        UserCache cache = cache(false);
+        when(users.findById(user.getId())).thenReturn(Optional.of(user));
+
+        assertThat(cache.findById(user.getId())).get().extracting(User::getEmail).isEqualTo("ada@nexia.dev");
+        assertThat(cache.findById(user.getId())).isPresent();
+        // The email index points at the entry loaded by id
+        assertThat(cache.findByEmail(user.getEmail())).isPresent();
+
+        verify(users, times(1)).findById(user.getId());
+        verify(users, times(0)).findByEmail(user.getEmail());
+    }
+
+    @Test
+    void evictedUserIsReloaded() {
+        UserCache cache = cache(false);
+        when(users.findById(user.getId())).thenReturn(Optional.of(user));
+        cache.findById(user.getId());
+
+        cache.evict(user.getId(), null);
+        cache.findById(user.getId());
+
+        verify(users, times(2)).findById(user.getId());
+    }
+
+    @Test
+    void evictionByIdAlsoInvalidatesTheEmailLookup() {
+        UserCache cache = cache(false);
+        when(users.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        cache.findByEmail(user.getEmail());
+
+        cache.evict(user.getId(), null);
+        cache.findByEmail(user.getEmail());
+
+        verify(users, times(2)).findByEmail(user.getEmail());
+    }
+
+    @Test
+    void loadOverlappingAnEvictionDoesNotCacheItsRow() {
+        UserCache cache = cache(false);
+        User renamed = new User(user.getId(), user.getEmail(), "Ada L.", user.getCreatedAt(), "hash", "USER", 0);
+        // The write and its eviction land while the first query is in flight
+        when(users.findById(user.getId()))
+                .thenAnswer(invocation -> {
+                    cache.evict(user.getId(), user.getEmail());
+                    return Optional.of(user);
+                })
+                .thenReturn(Optional.of(renamed));
+
+        assertThat(cache.findById(user.getId())).get().extracting(User::getFullName).isEqualTo("Ada");
+        assertThat(cache.findById(user.getId())).get().extracting(User::getFullName).isEqualTo("Ada L.");
+        assertThat(cache.findByEmail(user.getEmail())).get().extracting(User::getFullName).isEqualTo("Ada L.");
+
+        verify(users, times(2)).findById(user.getId());
+        verify(users, times(0)).findByEmail(user.getEmail());
+    }
+
+    @Test
+    void recentlyWrittenUserIsReadFromThePrimary() {
+        UserCache cache = cache(true);
+        List<Boolean> pinned = new ArrayList<>();
+        when(users.findById(user.getId())).thenAnswer(invocation -> {
+            pinned.add(ReadOnlyRoutingDataSource.pinnedToPrimary());
+            return Optional.of(user);
+        });
+        when(users.findByEmail(user.getEmail())).thenAnswer(invocation -> {
+            pinned.add(ReadOnlyRoutingDataSource.pinnedToPrimary());
+            return Optional.of(user);
+        });
+
+        cache.findById(user.getId());
+        cache.evict(user.getId(), user.getEmail());
+        cache.findById(user.getId());
+        cache.evict(user.getId(), user.getEmail());
+        cache.findByEmail(user.getEmail());
+
+        assertThat(pinned).containsExactly(false, true, true);
+        assertThat(ReadOnlyRoutingDataSource.pinnedToPrimary()).isFalse();
+    }
+
+    @Test
+    void withoutAReplicaReloadsAreNeverPinned() {
+        UserCache cache = cache(false);
+        List<Boolean> pinned = new ArrayList<>();
+        when(users.findById(user.getId())).thenAnswer(invocation -> {
+            pinned.add(ReadOnlyRoutingDataSource.pinnedToPrimary());
+            return Optional.of(user);
+        });
+
+        cache.evict(user.getId(), null);
+        cache.findById(user.getId());
+
+        assertThat(pinned).containsExactly(false);
+    }
+}
@@ -0,0 +1,142 @@
+package com.nexia.core.security;
+
+import com.nexia.core.api.ApiExceptionHandler;
+import com.nexia.core.api.error.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private static final String HELD = "held";
+
+    private final CountDownLatch hashing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /**
+     * Plain-text delegate; encoding {@link #HELD} holds the pool thread until {@link #release} opens.
+     */
+    private final PasswordEncoder blockingDelegate = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (!HELD.contentEquals(rawPassword)) {
+                return rawPassword.toString();
+            }
+            hashing.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    };
+
+    // One hashing thread and no queue
+    private final BoundedPasswordEncoder encoder =
+            new BoundedPasswordEncoder(blockingDelegate, 10, 1, 0, new SimpleMeterRegistry());
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        encoder.destroy();
+    }
+
+    private CompletableFuture<String> saturate() throws InterruptedException {
+        CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(() -> encoder.encode(HELD));
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        return inFlight;
+    }
+
+    @Test
+    void fullPoolFailsFastWithServiceBusy() throws Exception {
+        CompletableFuture<String> inFlight = saturate();
+
+        assertThatThrownBy(() -> encoder.matches("secret", "secret")).isInstanceOf(ServiceBusyException.class);
+        assertThatThrownBy(() -> encoder.encode("secret")).isInstanceOf(ServiceBusyException.class);
+
+        // The held hash completes and the pool takes work again
+        release.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS)).isEqualTo(HELD);
+        assertThat(encoder.matches("secret", "secret")).isTrue();
+    }
+
+    @Test
+    void timingAttackMatchForUnknownUserPropagatesServiceBusyUnwrapped() throws Exception {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(encoder);
+        provider.setUserDetailsService(username -> {
+            throw new UsernameNotFoundException(username);
+        });
+        ProviderManager manager = new ProviderManager(provider);
+        // The dummy password is encoded on the first lookup, outside the try; later misses only run matches
+        assertThatThrownBy(() -> manager.authenticate(token("nobody@nexia.dev")))
+                .isInstanceOf(BadCredentialsException.class);
+
+        saturate();
+
+        assertThatThrownBy(() -> manager.authenticate(token("nobody@nexia.dev")))
+                .isExactlyInstanceOf(ServiceBusyException.class);
+    }
+
+    @Test
+    void passwordCheckForKnownUserPropagatesServiceBusyUnwrapped() throws Exception {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(encoder);
+        provider.setUserDetailsService(username -> User.withUsername(username).password("secret").roles("USER").build());
+        ProviderManager manager = new ProviderManager(provider);
+
+        saturate();
+
+        assertThatThrownBy(() -> manager.authenticate(token("ada@nexia.dev")))
+                .isExactlyInstanceOf(ServiceBusyException.class);
+    }
+
+    @Test
+    void serviceBusyIsAnswered503WithRetryAfter() {
+        ResponseEntity<ProblemDetail> response =
+                new ApiExceptionHandler().handleBusy(new ServiceBusyException("password hashing capacity exhausted"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    void upgradeEncodingOnlyForBcryptHashesOfAnotherCost() {
+        BoundedPasswordEncoder bcrypt = new BoundedPasswordEncoder(10, 1, 1, new SimpleMeterRegistry());
+        try {
+            assertThat(bcrypt.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+            assertThat(bcrypt.upgradeEncoding(bcrypt.encode("secret"))).isFalse();
+            assertThat(bcrypt.upgradeEncoding("{noop}secret")).isFalse();
+            assertThat(bcrypt.upgradeEncoding(null)).isFalse();
+        } finally {
+            bcrypt.destroy();
+        }
+    }
+
+    private static UsernamePasswordAuthenticationToken token(String username) {
+        return new UsernamePasswordAuthenticationToken(username, "secret");
+    }
+}
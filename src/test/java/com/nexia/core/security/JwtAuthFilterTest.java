@@ -0,0 +1,128 @@
+package com.nexia.core.security;
+
+import com.nexia.core.domain.User;
+import com.nexia.core.repo.UserCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class JwtAuthFilterTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-42";
+    private static final String GATEWAY_SECRET = "gateway-secret";
+
+    private final JwtService jwtService = new JwtService(SECRET, "nexia", 3600, 100, new SimpleMeterRegistry());
+    private final DbUserDetailsService userDetailsService = mock(DbUserDetailsService.class);
+    private final UserCache userCache = mock(UserCache.class);
+    private final TokenRevocationRegistry revocations = new TokenRevocationRegistry(3600);
+    private final JwtAuthFilter filter =
+            new JwtAuthFilter(jwtService, userDetailsService, revocations, userCache, true, GATEWAY_SECRET);
+
+    private final User user = new User(UUID.randomUUID(), "ada@nexia.dev", "Ada", Instant.now(), "hash", "USER", 3);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication authenticate(MockHttpServletRequest request) throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static MockHttpServletRequest withBearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+
+    private MockHttpServletRequest fromGateway(User relayed, Integer tokenVersion) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.addHeader(JwtAuthFilter.USER_ID_HEADER, relayed.getId().toString());
+        request.addHeader(JwtAuthFilter.USER_EMAIL_HEADER, relayed.getEmail());
+        request.addHeader(JwtAuthFilter.USER_ROLE_HEADER, relayed.getRole());
+        request.addHeader(JwtAuthFilter.TOKEN_ISSUED_AT_HEADER, Long.toString(Instant.now().getEpochSecond()));
+        if (tokenVersion != null) {
+            request.addHeader(JwtAuthFilter.TOKEN_VERSION_HEADER, tokenVersion.toString());
+        }
+        request.addHeader(JwtAuthFilter.GATEWAY_SECRET_HEADER, GATEWAY_SECRET);
+        return request;
+    }
+
+    @Test
+    void claimsOnlyBuildsThePrincipalFromTheTokenWhenItsVersionIsCurrent() throws Exception {
+        when(userCache.findById(user.getId())).thenReturn(Optional.of(user));
+
+        Authentication authentication = authenticate(withBearer(jwtService.generate(user)));
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isEqualTo(new ClaimsUser(user.getId(), user.getEmail(), "USER"));
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void tokenIssuedBeforeARoleChangeIsRejected() throws Exception {
+        String token = jwtService.generate(user);
+        // The role change bumped the persisted version (V9 trigger)
+        User promoted = new User(user.getId(), user.getEmail(), user.getFullName(), user.getCreatedAt(),
+                user.getPasswordHash(), "ADMIN", user.getTokenVersion() + 1);
+        when(userCache.findById(user.getId())).thenReturn(Optional.of(promoted));
+
+        assertThat(authenticate(withBearer(token))).isNull();
+    }
+
+    @Test
+    void tokenOfADeletedUserIsRejected() throws Exception {
+        when(userCache.findById(user.getId())).thenReturn(Optional.empty());
+
+        assertThat(authenticate(withBearer(jwtService.generate(user)))).isNull();
+    }
+
+    @Test
+    void locallyRevokedTokenIsRejectedBeforeTheCachedUserCatchesUp() throws Exception {
+        when(userCache.findById(user.getId())).thenReturn(Optional.of(user));
+        String token = jwtService.generate(user);
+
+        revocations.revoke(user.getId());
+
+        // Same second as the revocation: still rejected (iat has second precision)
+        assertThat(authenticate(withBearer(token))).isNull();
+    }
+
+    @Test
+    void gatewayIdentityIsCheckedAgainstTheTokenVersionToo() throws Exception {
+        when(userCache.findById(user.getId())).thenReturn(Optional.of(user));
+
+        assertThat(authenticate(fromGateway(user, 3))).isNotNull();
+        SecurityContextHolder.clearContext();
+
+        assertThat(authenticate(fromGateway(user, 2))).isNull();
+        // A token without a version predates versioning and only matches version 0
+        assertThat(authenticate(fromGateway(user, null))).isNull();
+    }
+
+    @Test
+    void tamperedOrForeignTokenIsIgnored() throws Exception {
+        when(userCache.findById(user.getId())).thenReturn(Optional.of(user));
+        JwtService otherKey = new JwtService("another-secret-another-secret-another", "nexia", 3600, 100,
+                new SimpleMeterRegistry());
+
+        assertThat(authenticate(withBearer(otherKey.generate(user)))).isNull();
+    }
+}
@@ -0,0 +1,108 @@
+package com.nexia.core.security;
+
+import com.nexia.core.domain.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-42";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-03-01T00:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtService jwtService = new JwtService(SECRET, "nexia", 3600, 100, meterRegistry, clock);
+
+    private final User user = new User(UUID.randomUUID(), "ada@nexia.dev", "Ada", Instant.now(), "hash", "USER", 0);
+
+    private double cacheHits() {
+        return meterRegistry.get("cache.gets").tag("cache", "jwt.verified").tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    @Test
+    void cachedClaimsExpireWithTheTokenNotTheConfiguredTtl() {
+        // Issued with a 10 s lifetime by a peer sharing the secret; this service would issue 1 h tokens
+        JwtService issuer = new JwtService(SECRET, "nexia", 10, 100, new SimpleMeterRegistry(), clock);
+        String token = issuer.generate(user);
+
+        jwtService.parse(token);
+        clock.advance(Duration.ofSeconds(9));
+        assertThat(jwtService.parse(token).getSubject()).isEqualTo(user.getId().toString());
+        assertThat(cacheHits()).isEqualTo(1d);
+
+        clock.advance(Duration.ofSeconds(2));
+        assertThatThrownBy(() -> jwtService.parse(token)).isInstanceOf(ExpiredJwtException.class);
+        // The entry was gone, not merely rejected after a hit
+        assertThat(cacheHits()).isEqualTo(1d);
+    }
+
+    @Test
+    void expiredCachedTokenIsRejected() {
+        String token = jwtService.generate(user);
+        jwtService.parse(token);
+
+        clock.advance(Duration.ofHours(1).plusSeconds(1));
+
+        assertThatThrownBy(() -> jwtService.parse(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void tamperedTokenIsNotServedFromTheCache() {
+        String token = jwtService.generate(user);
+        jwtService.parse(token);
+
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        String elevated = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.replace("\"USER\"", "\"ADMIN\"").getBytes(StandardCharsets.UTF_8));
+        String tampered = parts[0] + "." + elevated + "." + parts[2];
+
+        assertThatThrownBy(() -> jwtService.parse(tampered)).isInstanceOf(SignatureException.class);
+        assertThat(cacheHits()).isZero();
+        // The genuine token is still served from the cache
+        assertThat(jwtService.parse(token).get("role", String.class)).isEqualTo("USER");
+        assertThat(cacheHits()).isEqualTo(1d);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.nexia.core.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationRegistryTest {
+
+    private static final Instant REVOKED_AT = Instant.parse("2026-03-01T12:00:00.400Z");
+
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    void tokensIssuedUpToTheRevocationAreRejected() {
+        TokenRevocationRegistry registry = new TokenRevocationRegistry(3600, Clock.fixed(REVOKED_AT, ZoneOffset.UTC));
+        registry.revoke(userId);
+
+        assertThat(registry.isRevoked(userId, REVOKED_AT.minusSeconds(60))).isTrue();
+        assertThat(registry.isRevoked(userId, Instant.parse("2026-03-01T12:00:01Z"))).isFalse();
+        assertThat(registry.isRevoked(UUID.randomUUID(), REVOKED_AT.minusSeconds(60))).isFalse();
+    }
+
+    @Test
+    void tokenFromTheSameSecondCountsAsRevoked() {
+        TokenRevocationRegistry registry = new TokenRevocationRegistry(3600, Clock.fixed(REVOKED_AT, ZoneOffset.UTC));
+        registry.revoke(userId);
+
+        // iat is truncated to the second, so a token issued 12:00:00.900 reads as 12:00:00, before
+        // the revocation; it cannot be told apart from one issued at 12:00:00.100
+        assertThat(registry.isRevoked(userId, Instant.parse("2026-03-01T12:00:00Z"))).isTrue();
+        // No iat at all cannot prove the token is newer
+        assertThat(registry.isRevoked(userId, null)).isTrue();
+    }
+
+    @Test
+    void entriesArePurgedOnceTheirTokensHaveExpired() {
+        MutableClock clock = new MutableClock(REVOKED_AT);
+        TokenRevocationRegistry registry = new TokenRevocationRegistry(3600, clock);
+        registry.revoke(userId);
+
+        clock.now = REVOKED_AT.plusSeconds(3601);
+        registry.revoke(UUID.randomUUID());
+
+        // Any token old enough to predate the first revocation has expired by now
+        assertThat(registry.isRevoked(userId, REVOKED_AT.minusSeconds(1))).isFalse();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}